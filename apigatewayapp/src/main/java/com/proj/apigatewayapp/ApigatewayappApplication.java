@@ -1,12 +1,25 @@
 package com.proj.apigatewayapp;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 
+import com.proj.apigatewayapp.filter.ResponseCacheFilter;
+import com.proj.apigatewayapp.ratelimit.ClientKeyResolver;
+import com.proj.apigatewayapp.ratelimit.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SpringBootApplication
 @EnableDiscoveryClient
 public class ApigatewayappApplication {
@@ -16,11 +29,49 @@ public class ApigatewayappApplication {
 	}
 	
 	@Bean
-	public RouteLocator configureRoute(RouteLocatorBuilder builder) {
+	public RouteLocator configureRoute(RouteLocatorBuilder builder, ResponseCacheFilter foodserviceResponseCache,
+			RequestRateLimiterGatewayFilterFactory rateLimiterFactory) {
 	       return builder.routes()
-	      .route("foodservice_route", r->r.path("/client1/**").uri("lb://foodservice")) //dynamic routing
-	      .route("customerservice_route", r->r.path("/client2/**").uri("lb://customerservice")) //dynamic routing
+	      .route("foodservice_route", r->r.path("/client1/**").filters(f -> f
+	    		  .filter(rateLimit(rateLimiterFactory, "foodservice_route"), foodserviceResponseCache.getOrder() - 1) //admission control before the cache
+	    		  .filter(foodserviceResponseCache)).uri("lb://foodservice")) //dynamic routing, menu reads cached at the edge
+	      .route("customerservice_route", r->r.path("/client2/**").filters(f -> f
+	    		  .filter(rateLimit(rateLimiterFactory, "customerservice_route"))).uri("lb://customerservice")) //dynamic routing
 	      .build();
 	    }
 
+	/**
+	 * Rate limiting of a route with the limits given to the TokenBucketRateLimiter, 429 when exceeded.
+	 */
+	private static GatewayFilter rateLimit(RequestRateLimiterGatewayFilterFactory rateLimiterFactory, String routeId) {
+		RequestRateLimiterGatewayFilterFactory.Config config = new RequestRateLimiterGatewayFilterFactory.Config();
+		config.setRouteId(routeId);
+		return rateLimiterFactory.apply(config);
+	}
+
+	@Bean
+	public TokenBucketRateLimiter tokenBucketRateLimiter(@Value("${gateway.ratelimit.max-clients:100000}") long maxClients,
+			@Value("${gateway.ratelimit.idle-timeout:10m}") Duration idleTimeout,
+			@Value("${gateway.ratelimit.foodservice.replenish-rate:50}") double foodserviceRate,
+			@Value("${gateway.ratelimit.foodservice.burst-capacity:100}") long foodserviceBurst,
+			@Value("${gateway.ratelimit.customerservice.replenish-rate:10}") double customerserviceRate,
+			@Value("${gateway.ratelimit.customerservice.burst-capacity:20}") long customerserviceBurst,
+			MeterRegistry meterRegistry) {
+		return new TokenBucketRateLimiter(maxClients, idleTimeout, meterRegistry)
+				.limit("foodservice_route", foodserviceRate, foodserviceBurst)
+				.limit("customerservice_route", customerserviceRate, customerserviceBurst);
+	}
+
+	@Bean
+	public ClientKeyResolver clientKeyResolver(@Value("${gateway.ratelimit.api-keys:}") Set<String> apiKeys) {
+		return new ClientKeyResolver(apiKeys);
+	}
+
+	@Bean
+	public ResponseCacheFilter foodserviceResponseCache(@Value("${gateway.cache.foodservice.ttls:}") List<String> ttls,
+			@Value("${gateway.cache.foodservice.max-entries:10000}") long maxEntries,
+			@Value("${gateway.cache.foodservice.max-body-size:262144}") int maxBodySize, MeterRegistry meterRegistry) {
+		return new ResponseCacheFilter("foodservice_route", ResponseCacheFilter.ttlsOf(ttls), maxEntries, maxBodySize, meterRegistry);
+	}
+
 }
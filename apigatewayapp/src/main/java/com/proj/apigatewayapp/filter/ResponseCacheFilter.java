@@ -0,0 +1,286 @@
+package com.proj.apigatewayapp.filter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.reactivestreams.Publisher;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gateway filter that keeps a bounded in-memory cache of the GET responses of a route, so that
+ * repeated reads of the same resource (e.g. /dish/category/{x}) are answered by the gateway
+ * without a call to the service behind it.
+ *
+ * - The cache key is built from the path, the query string and the Accept / Accept-Encoding
+ *   headers of the request, so different representations are cached separately.
+ * - Only 200 responses are cached, and only when they don't set cookies, are not marked
+ *   no-store or private and are smaller than the configured maximum body size.
+ * - Each path has its own TTL: the one of the first pattern of the route it matches, e.g.
+ *   /client1/dish/search=10s,/client1/dish/category/**=60s. A path matching no pattern, or a
+ *   pattern with a zero TTL, is not cached at all and passes through the filter untouched:
+ *   /client1/actuator/** or a feed polled for changes such as /client1/dish/catalog.
+ *   The number of entries is bounded.
+ * - Every response of a cached path carries an ETag: the one sent by the service,
+ *   or a hash of the body. A request whose If-None-Match matches it gets a 304 without body,
+ *   whether the response came from the cache or from the service.
+ *
+ * Responses served from the cache carry X-Cache: HIT, the others X-Cache: MISS.
+ * Hits and misses are counted in gateway.cache.requests and the 304 answers in
+ * gateway.cache.not.modified, both tagged with the route; the Caffeine statistics are
+ * published as cache.* with cache=gateway.{route}.
+ */
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+	static final String X_CACHE = "X-Cache";
+
+	// Headers that describe the connection rather than the resource, never replayed from the cache
+	private static final Set<String> NOT_CACHED_HEADERS = Set.of(HttpHeaders.CONNECTION.toLowerCase(),
+			HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+			HttpHeaders.DATE.toLowerCase(), "keep-alive", X_CACHE.toLowerCase());
+
+	private final String routeId;
+	private final Map<PathPattern, Duration> ttls; // first match wins
+	private final int maxBodySize;
+	private final Cache<String, CachedResponse> cache;
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter notModified;
+
+	/**
+	 * @param routeId       the route the filter is applied to, used in the key and the metrics
+	 * @param ttls          time after which a cached response is fetched again, by path pattern
+	 *                      (see ttlsOf); the paths matching none of them are not cached
+	 * @param maxEntries    maximum number of cached responses
+	 * @param maxBodySize   responses with a larger body (in bytes) are not cached
+	 * @param meterRegistry registry the cache metrics are published to
+	 */
+	public ResponseCacheFilter(String routeId, Map<String, Duration> ttls, long maxEntries, int maxBodySize,
+			MeterRegistry meterRegistry) {
+		this.routeId = routeId;
+		this.ttls = new LinkedHashMap<>();
+		ttls.forEach((pattern, ttl) -> this.ttls.put(PathPatternParser.defaultInstance.parse(pattern), ttl));
+		this.maxBodySize = maxBodySize;
+		this.cache = Caffeine.newBuilder().expireAfter(new Expiry<String, CachedResponse>() {
+			@Override
+			public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+				return value.ttl().toNanos();
+			}
+
+			@Override
+			public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+				return value.ttl().toNanos();
+			}
+
+			@Override
+			public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+				return currentDuration;
+			}
+		}).maximumSize(maxEntries).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway." + routeId);
+		this.hits = meterRegistry.counter("gateway.cache.requests", "route", routeId, "result", "hit");
+		this.misses = meterRegistry.counter("gateway.cache.requests", "route", routeId, "result", "miss");
+		this.notModified = meterRegistry.counter("gateway.cache.not.modified", "route", routeId);
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		Duration ttl = HttpMethod.GET.equals(request.getMethod()) ? ttlOf(request.getPath().pathWithinApplication()) : null;
+		if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+			return chain.filter(exchange);
+		}
+
+		String key = cacheKey(request);
+		CachedResponse cached = cache.getIfPresent(key);
+		if (cached != null) {
+			hits.increment();
+			return writeCached(exchange, cached);
+		}
+		misses.increment();
+		return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key, ttl)).build());
+	}
+
+	/**
+	 * Parses TTLs by path pattern, e.g. [/client1/dish/catalog=0, /client1/dish/**=30s], in the
+	 * order they are matched. TTLs are in any format of Spring Boot durations (30s, 5m, 500ms...).
+	 *
+	 * @throws IllegalArgumentException for an entry that is not pattern=ttl
+	 */
+	public static Map<String, Duration> ttlsOf(List<String> entries) {
+		Map<String, Duration> ttls = new LinkedHashMap<>();
+		for (String entry : entries) {
+			int separator = entry.lastIndexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Expected pattern=ttl, got " + entry);
+			}
+			ttls.put(entry.substring(0, separator).trim(), DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+		}
+		return ttls;
+	}
+
+	private Duration ttlOf(PathContainer path) {
+		for (Map.Entry<PathPattern, Duration> ttl : ttls.entrySet()) {
+			if (ttl.getKey().matches(path)) {
+				return ttl.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Runs before NettyWriteResponseFilter, so that the response of the service is written
+	 * through the CachingResponse decorator.
+	 */
+	@Override
+	public int getOrder() {
+		return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+	}
+
+	/**
+	 * Drops every cached response of the route.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	private String cacheKey(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return routeId + ' ' + request.getURI().getRawPath() + '?' + nullToEmpty(request.getURI().getRawQuery())
+				+ '|' + String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT))
+				+ '|' + String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+	}
+
+	private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.getHeaders().putAll(cached.headers());
+		response.getHeaders().set(X_CACHE, "HIT");
+		if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+			notModified.increment();
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return response.setComplete();
+		}
+		response.setStatusCode(cached.status());
+		response.getHeaders().setContentLength(cached.body().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+	}
+
+	/**
+	 * Weak comparison (RFC 9110, 8.8.3.2) of the If-None-Match values with the ETag.
+	 */
+	static boolean matches(List<String> ifNoneMatch, String etag) {
+		for (String candidate : ifNoneMatch) {
+			if ("*".equals(candidate) || opaqueTag(candidate).equals(opaqueTag(etag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String opaqueTag(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static boolean isCacheable(HttpHeaders headers) {
+		String cacheControl = nullToEmpty(headers.getCacheControl()).toLowerCase();
+		return !headers.containsKey(HttpHeaders.SET_COOKIE) && !cacheControl.contains("no-store")
+				&& !cacheControl.contains("private");
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+
+	/**
+	 * Response decorator that buffers the body of a 200 response to add an ETag, store it in
+	 * the cache and answer a matching If-None-Match with 304.
+	 */
+	private class CachingResponse extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+		private final String key;
+		private final Duration ttl;
+
+		CachingResponse(ServerWebExchange exchange, String key, Duration ttl) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+			this.key = key;
+			this.ttl = ttl;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpStatusCode status = getStatusCode();
+			if (status == null || status.value() != HttpStatus.OK.value()) {
+				return super.writeWith(body);
+			}
+			return DataBufferUtils.join(body).map(joined -> {
+				byte[] bytes = new byte[joined.readableByteCount()];
+				joined.read(bytes);
+				DataBufferUtils.release(joined);
+				return bytes;
+			}).defaultIfEmpty(new byte[0]).flatMap(bytes -> {
+				HttpHeaders headers = getHeaders();
+				String etag = headers.getETag();
+				if (etag == null) {
+					etag = '"' + DigestUtils.md5DigestAsHex(bytes) + '"';
+					headers.setETag(etag);
+				}
+				if (bytes.length <= maxBodySize && isCacheable(headers)) {
+					HttpHeaders cachedHeaders = new HttpHeaders();
+					headers.forEach((name, values) -> {
+						if (!NOT_CACHED_HEADERS.contains(name.toLowerCase())) {
+							cachedHeaders.put(name, List.copyOf(values));
+						}
+					});
+					cache.put(key, new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(cachedHeaders), bytes, etag, ttl));
+				}
+				headers.set(X_CACHE, "MISS");
+				if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), etag)) {
+					notModified.increment();
+					setStatusCode(HttpStatus.NOT_MODIFIED);
+					headers.remove(HttpHeaders.CONTENT_LENGTH);
+					headers.remove(HttpHeaders.TRANSFER_ENCODING);
+					return setComplete();
+				}
+				return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+			});
+		}
+	}
+
+	/**
+	 * A cached response: status, headers (without the connection-level ones), body, ETag and
+	 * the TTL of its path.
+	 */
+	record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, Duration ttl) {
+	}
+}
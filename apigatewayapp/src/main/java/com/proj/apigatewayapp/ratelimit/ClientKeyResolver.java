@@ -0,0 +1,44 @@
+package com.proj.apigatewayapp.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the client a request is rate limited as, in this order:
+ * - the API key sent in the X-API-Key header (e.g. a kiosk), if it is one of the configured keys,
+ * - the IP address the request comes from.
+ *
+ * Nothing authenticates the other headers a client may send (X-Customer-Id, an unknown API key):
+ * keying on them would let a client get a fresh bucket with every new value, bypassing the limit
+ * and flushing the buckets of the others. Such requests are limited by their IP address.
+ *
+ * The kind of key is part of it (key:, ip:), so the two never share a bucket.
+ */
+public class ClientKeyResolver implements KeyResolver {
+
+	public static final String API_KEY_HEADER = "X-API-Key";
+
+	private final Set<String> apiKeys; // Keys of the clients limited on their own, e.g. kiosks
+
+	public ClientKeyResolver(Set<String> apiKeys) {
+		this.apiKeys = Set.copyOf(apiKeys);
+	}
+
+	@Override
+	public Mono<String> resolve(ServerWebExchange exchange) {
+		String apiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+		if (StringUtils.hasText(apiKey) && apiKeys.contains(apiKey.trim())) {
+			return Mono.just("key:" + apiKey.trim());
+		}
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		String ip = remoteAddress == null ? "unknown"
+				: remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+		return Mono.just("ip:" + ip);
+	}
+}
@@ -0,0 +1,184 @@
+package com.proj.apigatewayapp.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory token bucket rate limiter for the RequestRateLimiter filter of the gateway, so that
+ * admission control works on a standalone gateway without Redis.
+ *
+ * Each client (as resolved by ClientKeyResolver) gets a bucket per route, holding up to
+ * burstCapacity tokens and refilled with replenishRate tokens per second. A request takes one
+ * token; when the bucket is empty it is rejected with 429 and a Retry-After header telling
+ * when the next token will be available. Routes without a Config are not limited.
+ *
+ * A bucket is a single AtomicLong updated with compare-and-set, so admitting a request never
+ * takes a lock. Buckets live in a bounded Caffeine cache and are dropped after idleTimeout
+ * without requests; a dropped bucket is recreated full, which is what it would have refilled
+ * to anyway.
+ *
+ * Admitted and rejected requests are counted in gateway.ratelimit.requests, tagged with the
+ * route and result=admitted|rejected.
+ */
+public class TokenBucketRateLimiter implements RateLimiter<TokenBucketRateLimiter.Config> {
+
+	static final String RETRY_AFTER = "Retry-After";
+	static final String REMAINING = "X-RateLimit-Remaining";
+	static final String BURST_CAPACITY = "X-RateLimit-Burst-Capacity";
+
+	private final Map<String, Config> config = new ConcurrentHashMap<>(); // routeId -> limits
+	private final Cache<String, TokenBucket> buckets;
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier clock;
+
+	/**
+	 * @param maxClients    maximum number of buckets kept in memory
+	 * @param idleTimeout   time without requests after which a bucket is dropped
+	 * @param meterRegistry registry the admitted and rejected counts are published to
+	 */
+	public TokenBucketRateLimiter(long maxClients, Duration idleTimeout, MeterRegistry meterRegistry) {
+		this(maxClients, idleTimeout, meterRegistry, System::nanoTime);
+	}
+
+	TokenBucketRateLimiter(long maxClients, Duration idleTimeout, MeterRegistry meterRegistry, LongSupplier clock) {
+		this.buckets = Caffeine.newBuilder().maximumSize(maxClients).expireAfterAccess(idleTimeout).build();
+		this.meterRegistry = meterRegistry;
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the limits of a route.
+	 *
+	 * @param routeId        the ID of the route
+	 * @param replenishRate  tokens added per second, i.e. the sustained number of requests per second
+	 * @param burstCapacity  maximum number of tokens, i.e. the number of requests allowed in a burst
+	 * @return this rate limiter
+	 * @throws IllegalArgumentException if replenishRate or burstCapacity is not positive
+	 */
+	public TokenBucketRateLimiter limit(String routeId, double replenishRate, long burstCapacity) {
+		if (!(replenishRate > 0) || burstCapacity <= 0) {
+			throw new IllegalArgumentException("Rate limit of " + routeId + ": replenishRate and burstCapacity must be positive, got "
+					+ replenishRate + " and " + burstCapacity);
+		}
+		Config routeConfig = newConfig();
+		routeConfig.setReplenishRate(replenishRate);
+		routeConfig.setBurstCapacity(burstCapacity);
+		config.put(routeId, routeConfig);
+		return this;
+	}
+
+	@Override
+	public Mono<Response> isAllowed(String routeId, String id) {
+		Config routeConfig = config.get(routeId);
+		if (routeConfig == null) {
+			return Mono.just(new Response(true, Map.of()));
+		}
+
+		long interval = (long) (TimeUnit.SECONDS.toNanos(1) / routeConfig.getReplenishRate()); // ns per token
+		TokenBucket bucket = buckets.get(routeId + '|' + id, key -> new TokenBucket());
+		long waitNanos = bucket.tryAcquire(clock.getAsLong(), interval, routeConfig.getBurstCapacity());
+		if (waitNanos == 0) {
+			meterRegistry.counter("gateway.ratelimit.requests", "route", routeId, "result", "admitted").increment();
+			return Mono.just(new Response(true, Map.of(
+					BURST_CAPACITY, String.valueOf(routeConfig.getBurstCapacity()),
+					REMAINING, String.valueOf(bucket.available(clock.getAsLong(), interval, routeConfig.getBurstCapacity())))));
+		}
+		meterRegistry.counter("gateway.ratelimit.requests", "route", routeId, "result", "rejected").increment();
+		long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)); // whole seconds, rounded up
+		return Mono.just(new Response(false, Map.of(
+				BURST_CAPACITY, String.valueOf(routeConfig.getBurstCapacity()),
+				REMAINING, "0",
+				RETRY_AFTER, String.valueOf(retryAfter))));
+	}
+
+	@Override
+	public Map<String, Config> getConfig() {
+		return config;
+	}
+
+	@Override
+	public Class<Config> getConfigClass() {
+		return Config.class;
+	}
+
+	@Override
+	public Config newConfig() {
+		return new Config();
+	}
+
+	/**
+	 * Limits of a route.
+	 */
+	public static class Config {
+
+		private double replenishRate; // Tokens added per second
+		private long burstCapacity; // Maximum number of tokens in a bucket
+
+		public double getReplenishRate() {
+			return replenishRate;
+		}
+
+		public void setReplenishRate(double replenishRate) {
+			this.replenishRate = replenishRate;
+		}
+
+		public long getBurstCapacity() {
+			return burstCapacity;
+		}
+
+		public void setBurstCapacity(long burstCapacity) {
+			this.burstCapacity = burstCapacity;
+		}
+	}
+
+	/**
+	 * A token bucket stored as a single timestamp: the instant (in ns) from which the bucket has
+	 * been refilling since it was last empty. At time now it holds
+	 * min(capacity, (now - emptySince) / interval) tokens, so taking a token moves the timestamp
+	 * forward by one interval.
+	 */
+	static class TokenBucket {
+
+		private final AtomicLong emptySince = new AtomicLong(Long.MIN_VALUE);
+
+		/**
+		 * Takes a token if one is available.
+		 *
+		 * @return 0 if a token was taken, otherwise the time in ns until the next token is available
+		 */
+		long tryAcquire(long now, long interval, long capacity) {
+			while (true) {
+				long current = emptySince.get();
+				// A full bucket doesn't accumulate more than capacity tokens
+				long start = Math.max(current, now - capacity * interval);
+				long next = start + interval;
+				if (next > now) {
+					return next - now;
+				}
+				if (emptySince.compareAndSet(current, next)) {
+					return 0;
+				}
+			}
+		}
+
+		/**
+		 * @return the number of tokens available at time now
+		 */
+		long available(long now, long interval, long capacity) {
+			long start = Math.max(emptySince.get(), now - capacity * interval);
+			return (now - start) / interval;
+		}
+	}
+}
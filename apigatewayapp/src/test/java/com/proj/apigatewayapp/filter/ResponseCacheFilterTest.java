@@ -0,0 +1,132 @@
+package com.proj.apigatewayapp.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheFilterTest {
+
+	private static final String BODY = "[{\"dishId\":1,\"dishName\":\"Dal\"}]";
+
+	private ResponseCacheFilter filter;
+	private AtomicInteger upstreamCalls;
+	private GatewayFilterChain upstream;
+
+	@BeforeEach
+	void setUp() {
+		filter = new ResponseCacheFilter("foodservice_route",
+				ResponseCacheFilter.ttlsOf(List.of("/client1/dish/catalog=0", "/client1/dish/search=1ms", "/client1/dish/**=1m")),
+				100, 1024, new SimpleMeterRegistry());
+		upstreamCalls = new AtomicInteger();
+		upstream = exchange -> {
+			upstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+		};
+	}
+
+	@Test
+	void repeatedGetIsServedFromTheCacheWithTheSameEtag() {
+		MockServerWebExchange first = get("/client1/dish/category/Main");
+		filter.filter(first, upstream).block();
+		MockServerWebExchange second = get("/client1/dish/category/Main");
+		filter.filter(second, upstream).block();
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+		assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+		assertEquals(BODY, second.getResponse().getBodyAsString().block());
+		assertNotNull(first.getResponse().getHeaders().getETag());
+		assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+	}
+
+	@Test
+	void matchingIfNoneMatchIsAnsweredWithNotModified() {
+		MockServerWebExchange first = get("/client1/dish/category/Main");
+		filter.filter(first, upstream).block();
+		String etag = first.getResponse().getHeaders().getETag();
+
+		MockServerWebExchange conditional = MockServerWebExchange
+				.from(MockServerHttpRequest.get("/client1/dish/category/Main").ifNoneMatch("W/" + etag));
+		filter.filter(conditional, upstream).block();
+
+		assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+		assertEquals("", conditional.getResponse().getBodyAsString().defaultIfEmpty("").block());
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	void queryAndAcceptAreSeparateEntriesAndOtherMethodsBypassTheCache() {
+		filter.filter(get("/client1/dish/category/Main"), upstream).block();
+		filter.filter(get("/client1/dish/category/Main?page=2"), upstream).block();
+		filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/client1/dish/category/Main")
+				.accept(MediaType.APPLICATION_XML)), upstream).block();
+		filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/client1/dish/category/Main")), upstream).block();
+		filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/client1/dish/category/Main")), upstream).block();
+
+		assertEquals(5, upstreamCalls.get());
+	}
+
+	@Test
+	void excludedAndUnmatchedPathsAreNeverCached() {
+		MockServerWebExchange catalog = get("/client1/dish/catalog");
+		filter.filter(catalog, upstream).block();
+		filter.filter(get("/client1/dish/catalog"), upstream).block();
+		MockServerWebExchange actuator = get("/client1/actuator/health");
+		filter.filter(actuator, upstream).block();
+		filter.filter(get("/client1/actuator/health"), upstream).block();
+
+		assertEquals(4, upstreamCalls.get());
+		assertNull(catalog.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+		assertNull(actuator.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+	}
+
+	@Test
+	void eachPathExpiresAfterItsOwnTtl() throws InterruptedException {
+		filter.filter(get("/client1/dish/search?q=dal"), upstream).block();
+		filter.filter(get("/client1/dish/category/Main"), upstream).block();
+		Thread.sleep(20);
+		MockServerWebExchange search = get("/client1/dish/search?q=dal");
+		filter.filter(search, upstream).block();
+		MockServerWebExchange category = get("/client1/dish/category/Main");
+		filter.filter(category, upstream).block();
+
+		assertEquals("MISS", search.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+		assertEquals("HIT", category.getResponse().getHeaders().getFirst(ResponseCacheFilter.X_CACHE));
+		assertEquals(3, upstreamCalls.get());
+	}
+
+	@Test
+	void ttlsAreParsedInTheirOrder() {
+		Map<String, Duration> ttls = ResponseCacheFilter.ttlsOf(List.of("/client1/dish/catalog=0", " /client1/dish/** = 30s"));
+
+		assertEquals(List.of("/client1/dish/catalog", "/client1/dish/**"), List.copyOf(ttls.keySet()));
+		assertEquals(List.of(Duration.ZERO, Duration.ofSeconds(30)), List.copyOf(ttls.values()));
+		assertThrows(IllegalArgumentException.class, () -> ResponseCacheFilter.ttlsOf(List.of("/client1/dish/**")));
+	}
+
+	private static MockServerWebExchange get(String uri) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+	}
+}
@@ -0,0 +1,35 @@
+package com.proj.apigatewayapp.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+class ClientKeyResolverTest {
+
+	private final ClientKeyResolver resolver = new ClientKeyResolver(Set.of("kiosk-1"));
+
+	@Test
+	void configuredApiKeysAreLimitedOnTheirOwn() {
+		assertEquals("key:kiosk-1", resolve(request().header(ClientKeyResolver.API_KEY_HEADER, " kiosk-1 ")));
+	}
+
+	@Test
+	void unvalidatedHeadersAreLimitedByIp() {
+		assertEquals("ip:10.0.0.7", resolve(request().header(ClientKeyResolver.API_KEY_HEADER, "made-up")));
+		assertEquals("ip:10.0.0.7", resolve(request().header("X-Customer-Id", "42")));
+		assertEquals("ip:10.0.0.7", resolve(request()));
+	}
+
+	private static MockServerHttpRequest.BaseBuilder<?> request() {
+		return MockServerHttpRequest.get("/client1/dish/1").remoteAddress(new InetSocketAddress("10.0.0.7", 50000));
+	}
+
+	private String resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+		return resolver.resolve(MockServerWebExchange.from(request)).block();
+	}
+}
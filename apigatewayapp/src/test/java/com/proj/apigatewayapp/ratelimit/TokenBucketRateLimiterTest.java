@@ -0,0 +1,77 @@
+package com.proj.apigatewayapp.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBucketRateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+	private SimpleMeterRegistry meterRegistry;
+	private TokenBucketRateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		rateLimiter = new TokenBucketRateLimiter(100, Duration.ofMinutes(10), meterRegistry, now::get)
+				.limit("customerservice_route", 2, 3);
+	}
+
+	@Test
+	void burstIsAdmittedThenRejectedWithRetryAfter() {
+		for (int i = 0; i < 3; i++) {
+			assertTrue(isAllowed("customer:1").isAllowed());
+		}
+		Response rejected = isAllowed("customer:1");
+
+		assertFalse(rejected.isAllowed());
+		assertEquals("1", rejected.getHeaders().get(TokenBucketRateLimiter.RETRY_AFTER));
+		assertTrue(isAllowed("customer:2").isAllowed());
+		assertEquals(4, meterRegistry.counter("gateway.ratelimit.requests", "route", "customerservice_route", "result", "admitted").count());
+		assertEquals(1, meterRegistry.counter("gateway.ratelimit.requests", "route", "customerservice_route", "result", "rejected").count());
+	}
+
+	@Test
+	void tokensAreReplenishedOverTimeUpToTheBurstCapacity() {
+		for (int i = 0; i < 3; i++) {
+			isAllowed("customer:1");
+		}
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500)); // one token at 2 per second
+		assertTrue(isAllowed("customer:1").isAllowed());
+		assertFalse(isAllowed("customer:1").isAllowed());
+
+		now.addAndGet(TimeUnit.MINUTES.toNanos(1)); // refilled, but never above the capacity
+		for (int i = 0; i < 3; i++) {
+			assertTrue(isAllowed("customer:1").isAllowed());
+		}
+		assertFalse(isAllowed("customer:1").isAllowed());
+	}
+
+	@Test
+	void routesWithoutLimitsAreNotLimited() {
+		for (int i = 0; i < 10; i++) {
+			assertTrue(rateLimiter.isAllowed("other_route", "customer:1").block().isAllowed());
+		}
+	}
+
+	@Test
+	void limitsThatAdmitNothingAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> rateLimiter.limit("foodservice_route", 0, 10));
+		assertThrows(IllegalArgumentException.class, () -> rateLimiter.limit("foodservice_route", 5, 0));
+	}
+
+	private Response isAllowed(String id) {
+		return rateLimiter.isAllowed("customerservice_route", id).block();
+	}
+}
@@ -0,0 +1,30 @@
+package com.proj.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar. Runs JMH with the given arguments and, unless the caller
+ * chose another format, writes the results as JSON to jmh-result.json so that runs of two
+ * commits can be compared (e.g. with a JSON diff or jmh.morethan.io).
+ *
+ * Examples:
+ *   java -jar target/benchmarks.jar                       all benchmarks
+ *   java -jar target/benchmarks.jar MenuItemService -rff before.json
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+		if (!jmhArgs.contains("-rf")) {
+			jmhArgs.add("-rf");
+			jmhArgs.add("json");
+		}
+		if (!jmhArgs.contains("-rff")) {
+			jmhArgs.add("-rff");
+			jmhArgs.add("jmh-result.json");
+		}
+		org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,41 @@
+package com.proj.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds in-memory stand-ins for the Spring Data repository interfaces, so that the services
+ * can be benchmarked without a database. Only the methods given a handler are implemented,
+ * any other call fails, which keeps the benchmarks honest about what they exercise.
+ */
+public final class InMemoryRepository {
+
+	private InMemoryRepository() {
+	}
+
+	/**
+	 * @param type     the repository interface
+	 * @param handlers method name to implementation, receiving the call arguments
+	 * @return an implementation of the repository backed by the handlers
+	 */
+	public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+		Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+			switch (method.getName()) {
+			case "toString":
+				return "InMemory" + type.getSimpleName();
+			case "hashCode":
+				return System.identityHashCode(self);
+			case "equals":
+				return self == args[0];
+			default:
+				Function<Object[], Object> handler = handlers.get(method.getName());
+				if (handler == null) {
+					throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+				}
+				return handler.apply(args);
+			}
+		});
+		return type.cast(proxy);
+	}
+}
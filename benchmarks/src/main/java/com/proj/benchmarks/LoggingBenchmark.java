@@ -0,0 +1,136 @@
+package com.proj.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.util.LogSamplingFilter;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Benchmarks the logging of the menu success path under concurrent load, as configured in the
+ * services before and after the switch to asynchronous, sampled logging:
+ * - appender: sync (file written by the request thread) or async (AsyncAppender in front of it).
+ * - message: full (the whole list of dishes, as "Fetched list of dishes: {}" used to) or
+ *   summary (its size only).
+ * - samplingRate: 1 keeps every message, 10 keeps one in ten (LogSamplingFilter).
+ *
+ * Each trial uses its own LoggerContext writing to a temporary file with the pattern of the
+ * services. Note that the async appender drops INFO events when its queue is full, which is
+ * part of what it buys under load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+	static final String LOGGER = "com.proj.foodservice.service.MenuItemService";
+
+	@Param({ "sync", "async" })
+	String appender;
+
+	@Param({ "full", "summary" })
+	String message;
+
+	@Param({ "1", "10" })
+	int samplingRate;
+
+	private LoggerContext context;
+	private Logger logger;
+	private File logFile;
+	private List<MenuItem> dishes;
+	private boolean full;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		logFile = Files.createTempFile("logging-benchmark", ".log").toFile();
+		context = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} %-5level %logger{36} - %msg%n");
+		encoder.start();
+		FileAppender<ILoggingEvent> file = new FileAppender<>();
+		file.setContext(context);
+		file.setName("FILE");
+		file.setFile(logFile.getAbsolutePath());
+		file.setEncoder(encoder);
+		file.start();
+
+		Appender<ILoggingEvent> root = file;
+		if ("async".equals(appender)) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setName("ASYNC_FILE");
+			async.setQueueSize(8192);
+			async.setNeverBlock(true);
+			async.addAppender(file);
+			async.start();
+			root = async;
+		}
+		if (samplingRate > 1) {
+			LogSamplingFilter sampling = new LogSamplingFilter();
+			sampling.setContext(context);
+			sampling.addLogger(LOGGER);
+			sampling.setRate(samplingRate);
+			sampling.start();
+			context.addTurboFilter(sampling);
+		}
+
+		Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+		rootLogger.addAppender(root);
+		logger = context.getLogger(LOGGER);
+
+		full = "full".equals(message);
+		dishes = new ArrayList<>();
+		for (int i = 1; i <= 20; i++) {
+			dishes.add(new MenuItem(i, "Main", "Dish " + i, 100 + i, "A freshly prepared dish number " + i));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.stop();
+		logFile.delete();
+	}
+
+	@Benchmark
+	public void logFetchedDishes() {
+		if (full) {
+			logger.info("Fetched list of dishes: {}", dishes);
+		} else {
+			logger.info("Fetched {} dishes for category {}", dishes.size(), "Main");
+		}
+	}
+}
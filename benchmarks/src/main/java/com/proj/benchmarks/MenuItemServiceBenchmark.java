@@ -0,0 +1,129 @@
+package com.proj.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.config.MenuCacheConfig;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.exception.MenuException;
+import com.proj.foodservice.repository.MenuItemRepository;
+import com.proj.foodservice.service.MenuItemService;
+import com.proj.foodservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmarks the menu read path of MenuItemService against an in-memory repository:
+ * - direct: the service without its Spring proxy, i.e. every call reaches the repository.
+ * - cached: the service from a Spring context with MenuCacheConfig, as in foodservice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuItemServiceBenchmark {
+
+	static final String[] CATEGORIES = { "Starter", "Main", "Bread", "Dessert", "Drinks" };
+	static final int DISHES = 200;
+
+	private MenuItemService direct;
+	private MenuItemService cached;
+	private AnnotationConfigApplicationContext context;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		MenuItemRepository repository = menuRepository();
+
+		direct = new MenuItemService();
+		ReflectionTestUtils.setField(direct, "repository", repository);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(direct, "menuSingleFlight", new SingleFlight("menu", Duration.ofSeconds(2), meterRegistry));
+		ReflectionTestUtils.setField(direct, "meterRegistry", meterRegistry);
+
+		context = new AnnotationConfigApplicationContext();
+		context.register(MenuCacheConfig.class, MenuItemService.class);
+		context.registerBean(MenuItemRepository.class, () -> repository);
+		context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+		context.refresh();
+		cached = context.getBean(MenuItemService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MenuItem> getMenusDirect() throws MenuException {
+		return direct.getMenus(CATEGORIES[next++ % CATEGORIES.length]);
+	}
+
+	@Benchmark
+	public List<MenuItem> getMenusCached() throws MenuException {
+		return cached.getMenus(CATEGORIES[next++ % CATEGORIES.length]);
+	}
+
+	@Benchmark
+	public MenuItem getMenuByIdDirect() throws MenuException {
+		return direct.getMenuById(1 + next++ % DISHES);
+	}
+
+	@Benchmark
+	public MenuItem getMenuByIdCached() throws MenuException {
+		return cached.getMenuById(1 + next++ % DISHES);
+	}
+
+	/**
+	 * @return a repository holding DISHES dishes spread over CATEGORIES
+	 */
+	static MenuItemRepository menuRepository() {
+		Map<Integer, MenuItem> dishes = new HashMap<>();
+		Map<String, List<MenuItem>> byCategory = new HashMap<>();
+		for (int id = 1; id <= DISHES; id++) {
+			String category = CATEGORIES[id % CATEGORIES.length];
+			MenuItem item = new MenuItem(id, category, "Dish " + id, 50 + id, "Description of dish " + id);
+			dishes.put(id, item);
+			byCategory.computeIfAbsent(category, c -> new ArrayList<>()).add(item);
+		}
+		Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+		// Copies, as the database would return new instances on every query
+		handlers.put("findByDishCategory", args -> byCategory.getOrDefault(args[0], List.of()).stream().map(MenuItemServiceBenchmark::copy).toList());
+		handlers.put("findById", args -> Optional.ofNullable(dishes.get(args[0])).map(MenuItemServiceBenchmark::copy));
+		handlers.put("findAll", args -> dishes.values().stream().map(MenuItemServiceBenchmark::copy).toList());
+		handlers.put("findAllById", args -> {
+			List<MenuItem> found = new ArrayList<>();
+			((Iterable<?>) args[0]).forEach(id -> Optional.ofNullable(dishes.get(id)).map(MenuItemServiceBenchmark::copy).ifPresent(found::add));
+			return found;
+		});
+		return InMemoryRepository.stub(MenuItemRepository.class, handlers);
+	}
+
+	static MenuItem copy(MenuItem item) {
+		return new MenuItem(item.getDishId(), item.getDishCategory(), item.getDishName(), item.getUnitPrice(), item.getDishDesc());
+	}
+}
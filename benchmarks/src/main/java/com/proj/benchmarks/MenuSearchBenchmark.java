@@ -0,0 +1,81 @@
+package com.proj.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.beans.DishSuggestionBean;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+import com.proj.foodservice.service.MenuSearchService;
+
+/**
+ * Benchmarks the in-memory menu search and autocompletion of MenuSearchService over a
+ * generated menu of dishes dishes, i.e. the whole cost of GET /dish/search and
+ * GET /dish/suggest apart from HTTP and JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuSearchBenchmark {
+
+	static final String[] INGREDIENTS = { "paneer", "chicken", "mutton", "prawn", "dal", "aloo", "gobi", "palak",
+			"mushroom", "egg", "fish", "rajma", "chole", "bhindi", "baingan", "corn", "cheese", "mango", "kulfi", "lassi" };
+	static final String[] STYLES = { "tikka", "masala", "butter", "tandoori", "korma", "biryani", "kadai", "makhani",
+			"curry", "fry", "kebab", "pakora", "roll", "soup", "salad" };
+
+	@Param({ "1000", "10000" })
+	int dishes;
+
+	private MenuSearchService searchService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		searchService = new MenuSearchService();
+		ReflectionTestUtils.setField(searchService, "prefixExpansions", 50);
+		List<MenuItem> menu = new ArrayList<>(dishes);
+		for (int i = 1; i <= dishes; i++) {
+			String ingredient = INGREDIENTS[i % INGREDIENTS.length];
+			String style = STYLES[(i / INGREDIENTS.length) % STYLES.length];
+			menu.add(new MenuItem(i, "Category " + (i % 10), capitalize(ingredient) + " " + capitalize(style) + " " + i,
+					100 + i % 400, "Freshly made " + ingredient + " " + style + " with spices, served hot"));
+		}
+		searchService.onMenuChanged(new MenuChangedEvent(1, menu, List.of()));
+	}
+
+	@Benchmark
+	public List<MenuItem> searchTwoWords() {
+		return searchService.search("paneer tikka", 20);
+	}
+
+	@Benchmark
+	public List<MenuItem> searchPartialWord() {
+		return searchService.search("chicken ma", 20);
+	}
+
+	@Benchmark
+	public List<DishSuggestionBean> suggest() {
+		return searchService.suggest("pan", 10);
+	}
+
+	private static String capitalize(String word) {
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+}
@@ -0,0 +1,177 @@
+package com.proj.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.proj.customerservice.beans.DishBean;
+import com.proj.customerservice.beans.KitchenOrderBean;
+import com.proj.customerservice.beans.OrderBean;
+import com.proj.customerservice.entity.Customer;
+import com.proj.customerservice.entity.Orders;
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.repository.OrderOutboxRepository;
+import com.proj.customerservice.repository.OrderRepository;
+import com.proj.customerservice.service.CustomerService;
+import com.proj.customerservice.service.KitchenBoardService;
+import com.proj.customerservice.service.MenuReplicaService;
+import com.proj.customerservice.service.OrderService;
+import com.proj.customerservice.util.ReadYourWritesGuard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmarks OrderService.addOrder:
+ * - addOrderKnownDish: a dish known to the menu replica, i.e. the path taken by nearly every
+ *   order: the customer lookup, then the save and the outbox append of its ORDER_CREATED event.
+ * - addOrderRemoteDish: a dish unknown to the replica, checked with the Food Service through
+ *   the RestTemplate on the validation executor while the customer is looked up. The Food
+ *   Service is stubbed by a request factory answering a canned dish, so the result covers the
+ *   RestTemplate call path (URI expansion, JSON conversion, executor hand-off) but no network.
+ * The customer lookup and the repositories are in memory, so the result is the overhead of
+ * the service itself (bean mapping, logging).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+	static final int DISH_ID = 7;
+	static final int CUSTOMER_ID = 42;
+	static final byte[] DISH_JSON = ("{\"dishId\":" + DISH_ID + ",\"dishCategory\":\"Main\",\"dishName\":\"Paneer Tikka\","
+			+ "\"unitPrice\":120,\"description\":\"Grilled paneer\"}").getBytes(StandardCharsets.UTF_8);
+
+	private OrderService orderService;
+	private OrderService remoteOrderService;
+	private ExecutorService executor;
+	private OrderBean order;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		MenuReplicaService menuReplicaService = new MenuReplicaService();
+		DishBean dish = new DishBean();
+		dish.setDishId(DISH_ID);
+		dish.setUnitPrice(120);
+		menuReplicaService.register(dish);
+
+		Customer customer = new Customer();
+		customer.setCustomerId(CUSTOMER_ID);
+		customer.setFirstName("Bench");
+		customer.setEmail("bench@example.com");
+		CustomerService customerService = new CustomerService() {
+			@Override
+			public Customer findById(Integer customerId) {
+				return customerId == CUSTOMER_ID ? customer : null;
+			}
+		};
+
+		AtomicInteger ids = new AtomicInteger();
+		Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+		handlers.put("save", args -> {
+			Orders saved = (Orders) args[0];
+			saved.setOrderId(ids.incrementAndGet());
+			return saved;
+		});
+
+		OrderOutboxRepository outboxRepository = new OrderOutboxRepository() {
+			@Override
+			public void append(List<OrderEvent> events) {
+				// Events are not delivered in this benchmark
+			}
+		};
+
+		KitchenBoardService kitchenBoardService = new KitchenBoardService() {
+			@Override
+			public void ordersPlaced(List<KitchenOrderBean> orders) {
+				// No kitchen board in this benchmark
+			}
+		};
+
+		// Never learns the dish, so that every order goes to the (stubbed) Food Service
+		MenuReplicaService emptyReplica = new MenuReplicaService() {
+			@Override
+			public void register(DishBean dish) {
+			}
+		};
+		RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+			MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+			MockClientHttpResponse response = new MockClientHttpResponse(DISH_JSON, HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			request.setResponse(response);
+			return request;
+		});
+
+		executor = Executors.newFixedThreadPool(4);
+		OrderRepository orderRepository = InMemoryRepository.stub(OrderRepository.class, handlers);
+		orderService = orderService(orderRepository, outboxRepository, kitchenBoardService, customerService, menuReplicaService, restTemplate);
+		remoteOrderService = orderService(orderRepository, outboxRepository, kitchenBoardService, customerService, emptyReplica, restTemplate);
+
+		order = new OrderBean();
+		order.setDishId(DISH_ID);
+		order.setCustomerId(CUSTOMER_ID);
+		order.setQuantity(2);
+	}
+
+	private OrderService orderService(OrderRepository orderRepository, OrderOutboxRepository outboxRepository,
+			KitchenBoardService kitchenBoardService, CustomerService customerService, MenuReplicaService menuReplicaService,
+			RestTemplate restTemplate) {
+		OrderService service = new OrderService();
+		ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+		ReflectionTestUtils.setField(service, "outboxRepository", outboxRepository);
+		ReflectionTestUtils.setField(service, "kitchenBoardService", kitchenBoardService);
+		ReflectionTestUtils.setField(service, "customerService", customerService);
+		// No replica in this benchmark: the guard is disabled (max-lag 0)
+		ReflectionTestUtils.setField(service, "readYourWritesGuard", new ReadYourWritesGuard());
+		ReflectionTestUtils.setField(service, "menuReplicaService", menuReplicaService);
+		ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(service, "foodServiceUrl", "http://foodservice/client1");
+		ReflectionTestUtils.setField(service, "orderValidationExecutor", executor);
+		ReflectionTestUtils.setField(service, "validationTimeout", 5000L);
+		ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+		return service;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public ResponseEntity<?> addOrderKnownDish() {
+		return orderService.addOrder(order);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> addOrderRemoteDish() {
+		return remoteOrderService.addOrder(order);
+	}
+}
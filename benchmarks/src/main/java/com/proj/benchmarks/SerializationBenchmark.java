@@ -0,0 +1,73 @@
+package com.proj.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.customerservice.beans.OrderReturnBean;
+import com.proj.foodservice.entity.MenuItem;
+
+/**
+ * Benchmarks the Jackson serialization of the largest responses: a category of dishes
+ * (List of MenuItem) and an order history page (List of OrderReturnBean).
+ * The ObjectMapper is built the way Spring Boot builds the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "20", "200" })
+	int size;
+
+	private ObjectMapper objectMapper;
+	private List<MenuItem> menuItems;
+	private List<OrderReturnBean> orders;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		menuItems = new ArrayList<>();
+		orders = new ArrayList<>();
+		for (int i = 1; i <= size; i++) {
+			menuItems.add(new MenuItem(i, "Main", "Dish " + i, 100 + i, "A freshly prepared dish number " + i));
+			OrderReturnBean order = new OrderReturnBean();
+			order.setOrderId(i);
+			order.setDishId(i % 40);
+			order.setCustomerId(7);
+			order.setStatus(1);
+			order.setQuantity(1 + i % 3);
+			order.setUnitPrice(100 + i % 40);
+			order.setLineTotal((long) order.getUnitPrice() * order.getQuantity());
+			orders.add(order);
+		}
+	}
+
+	@Benchmark
+	public byte[] menuItems() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(menuItems);
+	}
+
+	@Benchmark
+	public byte[] orderReturnBeans() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(orders);
+	}
+}
@@ -0,0 +1,52 @@
+package com.proj.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.proj.customerservice.util.TimeDifferenceChecker;
+
+/**
+ * Benchmarks the cancellation window check of TimeDifferenceChecker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeDifferenceCheckerBenchmark {
+
+	// State fields, not final, so the JIT cannot constant-fold the inputs
+	private LocalDateTime placed;
+	private LocalDateTime withinWindow;
+	private LocalDateTime afterWindow;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		placed = LocalDateTime.of(2024, 8, 30, 12, 0);
+		withinWindow = placed.plusMinutes(4);
+		afterWindow = placed.plusMinutes(25);
+	}
+
+	@Benchmark
+	public boolean withinWindow() {
+		return TimeDifferenceChecker.isDifference10Minutes(placed, withinWindow);
+	}
+
+	@Benchmark
+	public boolean afterWindow() {
+		return TimeDifferenceChecker.isDifference10Minutes(placed, afterWindow);
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * 
+ */
+package com.proj.customerservice.DTO;
+
+/**
+ * Read-only projection of the unique contact details of a customer.
+ */
+public interface CustomerContactView {
+	String getEmail();
+	String getPhoneNumber();
+}
@@ -0,0 +1,22 @@
+/**
+ * 
+ */
+package com.proj.customerservice.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an order, selecting only the columns needed to answer order
+ * queries (OrderReturnBean plus the ordertime used by the history cursor). Queries returning
+ * it load neither the Customer row nor managed Orders entities.
+ */
+public interface OrderView {
+	Integer getOrderId();
+	Integer getDishId();
+	Integer getCustomerId();
+	Integer getStatus();
+	Integer getQuantity();
+	Integer getUnitPrice();
+	Long getLineTotal();
+	LocalDateTime getOrdertime();
+}
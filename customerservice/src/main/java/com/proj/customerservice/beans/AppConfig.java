@@ -1,21 +1,120 @@
 /**
- * 
+ *
  */
 package com.proj.customerservice.beans;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.proj.customerservice.util.TimedConnectionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
 /**
- * 
+ * Configuration of the HTTP client used for inter-service calls.
+ *
+ * The RestTemplate is backed by a pooled Apache HttpClient: connections are kept alive and
+ * reused, their number is capped in total and per route (i.e. per service instance), and
+ * every call is bounded by a connect timeout, a pool wait timeout and a response timeout, so
+ * a slow Food Service can't hold order threads indefinitely.
+ *
+ * The RestTemplate is @LoadBalanced: URLs use the Eureka service name (http://foodservice/...)
+ * and each call is sent to one of the registered instances.
+ *
+ * Pool usage is published as httpcomponents.httpclient.pool.* and the time spent waiting for a
+ * connection as http.client.pool.wait, both tagged with client=foodservice.
+ *
+ * It also provides the executor on which OrderService runs the validations of an order
+ * concurrently. The executor is bounded; when it is saturated the validation runs on the
+ * calling thread instead of queueing without limit.
  */
 
 @Configuration
 public class AppConfig {
 
+    @Value("${foodservice.http.max-total:100}")
+    int maxTotal; // Maximum number of pooled connections
+    @Value("${foodservice.http.max-per-route:50}")
+    int maxPerRoute; // Maximum number of pooled connections per service instance
+    @Value("${foodservice.http.connect-timeout:2000}")
+    long connectTimeout; // ms to establish a connection
+    @Value("${foodservice.http.connection-request-timeout:1000}")
+    long connectionRequestTimeout; // ms to wait for a connection from the pool
+    @Value("${foodservice.http.response-timeout:3000}")
+    long responseTimeout; // ms to wait for the response
+    @Value("${foodservice.http.keep-alive:30000}")
+    long keepAlive; // ms an idle connection is kept, unless the server asks for less
+    @Value("${foodservice.http.validate-after-inactivity:2000}")
+    long validateAfterInactivity; // ms of inactivity after which a connection is checked before reuse
+    @Value("${order.validation.threads:32}")
+    int validationThreads; // Threads validating orders concurrently
+    @Value("${order.validation.queue-capacity:256}")
+    int validationQueueCapacity; // Validations waiting for a thread before the caller runs them itself
+
+    @Bean
+    public PoolingHttpClientConnectionManager connectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new TimedConnectionManager(meterRegistry, "foodservice");
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "foodservice").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    // Honour a shorter Keep-Alive timeout sent by the server, never keep longer than configured
+                    TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.ofMilliseconds(Math.min(serverKeepAlive.toMilliseconds(), keepAlive));
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @LoadBalanced
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient)).build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderValidationExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(validationThreads, validationThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(validationQueueCapacity), new CustomizableThreadFactory("order-validation-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "orderValidation");
     }
 }
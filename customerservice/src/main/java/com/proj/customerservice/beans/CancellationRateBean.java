@@ -0,0 +1,18 @@
+package com.proj.customerservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The orders placed and cancelled over the last minutes, and the share of them cancelled.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CancellationRateBean {
+	private int minutes; // Length of the time window
+	private long placed;
+	private long cancelled;
+	private double rate; // cancelled / placed, 0 when no order was placed
+}
@@ -9,6 +9,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * 
@@ -40,6 +41,7 @@ public class CustomerBean {
     private String ZipCode;
     @NotNull(message = "Password is required.")
     @Size(min = 6, message = "Password must be at least 6 characters long.")
+    @ToString.Exclude // Never logged
     private String Passcode;
 
 }
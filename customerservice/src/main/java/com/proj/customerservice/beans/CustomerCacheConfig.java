@@ -0,0 +1,52 @@
+package com.proj.customerservice.beans;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the in-process customer cache used by CustomerService.findById, i.e. by
+ * the customer lookup of every order placed and of every order history read.
+ *
+ * The customer cache is a bounded Caffeine cache keyed by customerId, with its size and TTL
+ * spec in customer.cache.spec. It holds detached copies of the customers without their lazy
+ * order collection, so a cached customer never drags orders along nor touches a closed
+ * session. Unknown customers are not cached: a customer registered after a miss is found.
+ *
+ * The cache manager is transaction-aware: puts and evictions made within a transaction are
+ * applied once it commits, so a rolled-back write never reaches the cache.
+ *
+ * Statistics are recorded, so Spring Boot binds the cache to Micrometer (cache.gets,
+ * cache.evictions... tagged cache=customer, entries listed under /actuator/caches) and the
+ * hit ratio is published as cache.hit.ratio.
+ */
+@Configuration
+@EnableCaching
+public class CustomerCacheConfig {
+
+    public static final String CUSTOMER_CACHE = "customer";
+
+    @Value("${customer.cache.spec:maximumSize=100000,expireAfterWrite=30m}")
+    String customerSpec; // Caffeine spec of the customer cache
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
+        Cache<Object, Object> customers = Caffeine.from(customerSpec).recordStats().build();
+        Gauge.builder("cache.hit.ratio", customers, cache -> cache.stats().hitRate())
+                .tag("cache", CUSTOMER_CACHE)
+                .register(meterRegistry);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CUSTOMER_CACHE, customers);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
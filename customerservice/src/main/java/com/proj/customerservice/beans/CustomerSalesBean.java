@@ -0,0 +1,19 @@
+package com.proj.customerservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The orders of one customer over the last minutes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSalesBean {
+	private Integer customerId;
+	private int minutes; // Length of the time window
+	private long placed;
+	private long quantity; // Quantity ordered by the orders placed, less that of the orders cancelled
+	private long cancelled;
+}
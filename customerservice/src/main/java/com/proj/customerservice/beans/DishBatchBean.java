@@ -0,0 +1,22 @@
+/**
+ * 
+ */
+package com.proj.customerservice.beans;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+/**
+ * Response of the Food Service batch dish lookup (POST /dish/batch):
+ * the dishes found keyed by ID and the requested IDs that don't exist.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DishBatchBean {
+	private Map<Integer, DishBean> dishes;
+	private List<Integer> missing;
+}
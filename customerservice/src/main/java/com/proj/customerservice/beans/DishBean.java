@@ -0,0 +1,23 @@
+/**
+ * 
+ */
+package com.proj.customerservice.beans;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dish as returned by the Food Service. Only the fields the Customer Service relies on
+ * are mapped, the rest of the payload is ignored.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DishBean {
+	private Integer dishId;
+	private Integer unitPrice;
+}
@@ -0,0 +1,18 @@
+package com.proj.customerservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The orders of one dish over the time window of a sales analytics query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DishSalesBean {
+	private Integer dishId;
+	private long orders; // Orders placed
+	private long quantity; // Quantity ordered by these orders, less that of the orders cancelled
+	private long cancelled; // Orders cancelled
+}
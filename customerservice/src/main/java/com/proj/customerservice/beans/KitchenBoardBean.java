@@ -0,0 +1,20 @@
+package com.proj.customerservice.beans;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the kitchen board: the active orders grouped by dish, dishes by ID.
+ * The snapshot includes every change up to version (and possibly some later ones): a screen
+ * applies the changes streamed with a greater version on top of it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenBoardBean {
+	private long version;
+	private List<KitchenDishBean> dishes;
+}
@@ -0,0 +1,27 @@
+package com.proj.customerservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change of the kitchen board, as streamed to the screens.
+ *
+ * - version: Consecutive number of the change; a gap means changes were missed and the
+ *   board must be reloaded.
+ * - type: PLACED adds the order, CANCELLED and EXPIRED remove it. Applying a change twice
+ *   has no effect.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenBoardChangeBean {
+
+	public enum Type {
+		PLACED, CANCELLED, EXPIRED
+	}
+
+	private long version;
+	private Type type;
+	private KitchenOrderBean order;
+}
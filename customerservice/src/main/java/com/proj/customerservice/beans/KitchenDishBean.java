@@ -0,0 +1,19 @@
+package com.proj.customerservice.beans;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The active orders of one dish on the kitchen board, oldest first.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenDishBean {
+	private Integer dishId;
+	private int quantity; // Total quantity of the dish to prepare
+	private List<KitchenOrderBean> orders;
+}
@@ -0,0 +1,21 @@
+package com.proj.customerservice.beans;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An active order, as shown on the kitchen board.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenOrderBean {
+	private Integer orderId;
+	private Integer dishId;
+	private Integer customerId;
+	private Integer quantity;
+	private LocalDateTime ordertime;
+}
@@ -0,0 +1,26 @@
+/**
+ * 
+ */
+package com.proj.customerservice.beans;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+/**
+ * Menu catalog feed received from the Food Service (GET /dish/catalog).
+ * Either a full snapshot of the dishes (full = true) or the dishes changed and removed
+ * since the snapshot requested by the caller, identified by its catalogId (the version is
+ * only that of the Food Service instance that answered).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MenuCatalogBean {
+	private String catalogId;
+	private long version;
+	private boolean full;
+	private List<DishBean> dishes;
+	private List<Integer> removed;
+}
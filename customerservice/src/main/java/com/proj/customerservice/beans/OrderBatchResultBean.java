@@ -0,0 +1,27 @@
+/**
+ * 
+ */
+package com.proj.customerservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a bulk order placement (POST /orders/batch).
+ *
+ * - index: Position of the order in the submitted list.
+ * - code: 201 when the order was placed, otherwise the same code the single order
+ *   endpoint would have answered (400 invalid order, 404 dish or customer not found).
+ * - order: The placed order, only set when code is 201.
+ * - msg: The reason the order was rejected, only set when code isn't 201.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchResultBean {
+	private int index;
+	private int code;
+	private OrderReturnBean order;
+	private String msg;
+}
@@ -0,0 +1,23 @@
+/**
+ * 
+ */
+package com.proj.customerservice.beans;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a customer's order history, most recent orders first.
+ * nextCursor is null on the last page, otherwise it must be sent back as the cursor
+ * parameter to get the next page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageBean {
+	private List<OrderReturnBean> orders;
+	private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.proj.customerservice.beans;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The orders placed and cancelled during one minute.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderRateBean {
+	private LocalDateTime minute; // Start of the minute
+	private long placed;
+	private long cancelled;
+}
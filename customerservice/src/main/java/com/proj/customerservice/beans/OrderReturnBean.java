@@ -15,4 +15,6 @@ public class OrderReturnBean {
     private Integer customerId;
     private Integer status;
     private Integer quantity;
+    private Integer unitPrice; // Price of the dish when the order was placed
+    private Long lineTotal; // unitPrice * quantity
 }
@@ -0,0 +1,133 @@
+package com.proj.customerservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proj.customerservice.service.SalesAnalyticsService;
+import com.proj.customerservice.util.ErrorResponse;
+
+/**
+ * AnalyticsController serves the sales dashboards.
+ *
+ * Every endpoint is answered from the in-memory counters of SalesAnalyticsService, without any
+ * database access, over the last `minutes` minutes (analytics.window-minutes by default and at
+ * most). A minutes value out of range is answered with 400.
+ *
+ * The counters are those of this instance only: behind the load balancer, each answer covers the
+ * orders whose events this instance dispatched. Every answer names the instance in the
+ * X-Analytics-Instance header, so that a dashboard can tell the answers apart and sum those of
+ * every instance.
+ *
+ * Key endpoints include:
+ * - GET /analytics/dishes/top: The dishes ordered the most, by quantity.
+ * - GET /analytics/orders/per-minute: The orders placed and cancelled in each minute.
+ * - GET /analytics/orders/cancellation-rate: The share of the orders placed that were cancelled.
+ * - GET /analytics/customers/{customerId}: The orders of one customer.
+ */
+@RestController
+public class AnalyticsController {
+
+	@Autowired
+	SalesAnalyticsService salesAnalyticsService;
+
+	@Value("${analytics.window-minutes:60}")
+	int windowMinutes; // Default window of the queries
+
+	@Value("${analytics.max-results:100}")
+	int maxResults; // Maximum number of dishes returned
+
+	@Value("${analytics.instance-id:${spring.application.name}}")
+	String instanceId; // Instance whose counts are answered
+
+	static final String INSTANCE_HEADER = "X-Analytics-Instance";
+
+	Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+	/**
+	 * Get the dishes ordered the most.
+	 *
+	 * @param minutes - The length of the window, analytics.window-minutes by default.
+	 * @param limit - The number of dishes, 10 by default, analytics.max-results at most.
+	 * @return ResponseEntity - The dishes, by quantity ordered.
+	 */
+	@GetMapping("/analytics/dishes/top")
+	public ResponseEntity<?> getTopDishes(@RequestParam(required = false) Integer minutes,
+			@RequestParam(defaultValue = "10") int limit) {
+		if (limit <= 0) {
+			return badRequest("limit must be positive");
+		}
+		try {
+			return ok(salesAnalyticsService.topDishes(window(minutes), Math.min(limit, maxResults)));
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the orders placed and cancelled in each minute.
+	 *
+	 * @param minutes - The length of the window, analytics.window-minutes by default.
+	 * @return ResponseEntity - One entry per minute, oldest first.
+	 */
+	@GetMapping("/analytics/orders/per-minute")
+	public ResponseEntity<?> getOrdersPerMinute(@RequestParam(required = false) Integer minutes) {
+		try {
+			return ok(salesAnalyticsService.ordersPerMinute(window(minutes)));
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the cancellation rate.
+	 *
+	 * @param minutes - The length of the window, analytics.window-minutes by default.
+	 * @return ResponseEntity - The orders placed and cancelled, and their ratio.
+	 */
+	@GetMapping("/analytics/orders/cancellation-rate")
+	public ResponseEntity<?> getCancellationRate(@RequestParam(required = false) Integer minutes) {
+		try {
+			return ok(salesAnalyticsService.cancellationRate(window(minutes)));
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the orders of a customer.
+	 *
+	 * @param customerId - The customer.
+	 * @param minutes - The length of the window, analytics.window-minutes by default.
+	 * @return ResponseEntity - The orders placed and cancelled by the customer.
+	 */
+	@GetMapping("/analytics/customers/{customerId}")
+	public ResponseEntity<?> getCustomerSales(@PathVariable Integer customerId,
+			@RequestParam(required = false) Integer minutes) {
+		try {
+			return ok(salesAnalyticsService.customerSales(customerId, window(minutes)));
+		} catch (IllegalArgumentException e) {
+			return badRequest(e.getMessage());
+		}
+	}
+
+	private int window(Integer minutes) {
+		return minutes == null ? windowMinutes : minutes;
+	}
+
+	private ResponseEntity<?> ok(Object body) {
+		return ResponseEntity.ok().header(INSTANCE_HEADER, instanceId).body(body);
+	}
+
+	private ResponseEntity<?> badRequest(String message) {
+		logger.error(message);
+		return new ResponseEntity<>(new ErrorResponse(message, 400), HttpStatus.BAD_REQUEST);
+	}
+}
@@ -3,26 +3,26 @@
  */
 package com.proj.customerservice.controller;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 
 import com.proj.customerservice.DTO.OrdersDTO;
 import com.proj.customerservice.beans.CustomerBean;
-import com.proj.customerservice.beans.OrderReturnBean;
+import com.proj.customerservice.beans.OrderPageBean;
 import com.proj.customerservice.entity.Customer;
-import com.proj.customerservice.entity.Orders;
 import com.proj.customerservice.exception.EmailException;
 import com.proj.customerservice.exception.MenuException;
 import com.proj.customerservice.service.CustomerService;
@@ -66,7 +66,7 @@ public class CustomerController {
 			customer.setZipCode(customerBean.getZipCode());
 			customer.setPasscode(customerBean.getPasscode());
 			Customer cust = customerService.addService(customer);
-			logger.info("Saving customer {}",cust);
+			logger.info("Saved customer with id {}",cust.getCustomerId());
 			return new ResponseEntity<>(cust, HttpStatus.OK);
 
 		} catch (MenuException e) {
@@ -81,31 +81,28 @@ public class CustomerController {
 		}
 	}	
 	@GetMapping("/customer/{customerId}")
-	// Get list of order placed by a Customer
-	public ResponseEntity<?> getOrdersByCustomer(@PathVariable Integer customerId) {
+	// Get one page of the orders placed by a Customer, most recent first
+	public ResponseEntity<?> getOrdersByCustomer(@PathVariable Integer customerId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size,
+			@RequestParam(required = false) Integer status,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
 		
 		logger.info("Getting the list of order placed by customer");
-		Customer customer = new Customer();
-
-		customer.setCustomerId(customerId);
 		logger.info("Checling if the customer is present with id {}",customerId);
 		Customer customer2 = customerService.findById(customerId);
 		if (customer2 == null) {
 			logger.error("Customer not found with ID {}",customerId);
 			return new ResponseEntity<>(new ErrorResponse("Customer not found", 404),HttpStatus.NOT_FOUND);
 		}
-		List<Orders> order1 = orderService.getOrdersByCustomer(customer);
-		logger.info("List of order of customer with id {} is {}",customerId,order1);
-		List<OrderReturnBean> orderDTOs = order1.stream().map(order -> {
-			OrderReturnBean dto = new OrderReturnBean();
-			dto.setOrderId(order.getOrderId());
-			dto.setDishId(order.getDishId());
-			dto.setQuantity(order.getQuantity());
-			dto.setCustomerId(order.getCustomer().getCustomerId());
-			dto.setStatus(order.getStatus());
-			return dto;
-		}).collect(Collectors.toList());
-			logger.info("Returning the list of order {}",orderDTOs);
-		return ResponseEntity.ok(orderDTOs);
+		try {
+			OrderPageBean page = orderService.getOrdersByCustomer(customerId, cursor, size, status, from, to);
+			logger.info("Returning {} orders of customer with id {}, next cursor {}", page.getOrders().size(), customerId, page.getNextCursor());
+			return ResponseEntity.ok(page);
+		} catch (IllegalArgumentException e) {
+			logger.error(e.getMessage());
+			return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+		}
 	}
 }
\ No newline at end of file
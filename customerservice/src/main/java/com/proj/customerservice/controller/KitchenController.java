@@ -0,0 +1,63 @@
+package com.proj.customerservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.proj.customerservice.beans.KitchenBoardBean;
+import com.proj.customerservice.service.KitchenBoardService;
+import com.proj.customerservice.util.ErrorResponse;
+
+/**
+ * KitchenController exposes the board of the active orders to the kitchen screens.
+ *
+ * Both endpoints are served from the in-memory KitchenBoardService, without any database
+ * access, so any number of screens can refresh or watch the board.
+ *
+ * Key endpoints include:
+ * - GET /kitchen/board: The active orders grouped by dish, optionally of a single dish.
+ * - GET /kitchen/board/stream: Server-Sent Events: the board ("board" event), then each
+ *   change ("change" event) as it happens.
+ */
+@RestController
+public class KitchenController {
+
+	@Autowired
+	KitchenBoardService kitchenBoardService;
+
+	Logger logger = LoggerFactory.getLogger(KitchenController.class);
+
+	/**
+	 * Get the current kitchen board.
+	 *
+	 * @param dishId - Only the orders of this dish, or null for every dish.
+	 * @return ResponseEntity - The board and its version.
+	 */
+	@GetMapping("/kitchen/board")
+	public ResponseEntity<KitchenBoardBean> getBoard(@RequestParam(required = false) Integer dishId) {
+		return new ResponseEntity<>(kitchenBoardService.snapshot(dishId), HttpStatus.OK);
+	}
+
+	/**
+	 * Watch the kitchen board.
+	 *
+	 * @return SseEmitter - The stream of the board and its changes, or 503 when too many
+	 *         screens are connected.
+	 */
+	@GetMapping("/kitchen/board/stream") // text/event-stream is set by the SseEmitter, the 503 is JSON
+	public ResponseEntity<?> streamBoard() {
+		SseEmitter emitter = kitchenBoardService.stream();
+		if (emitter == null) {
+			logger.warn("Kitchen board screen rejected: too many screens connected");
+			return new ResponseEntity<>(new ErrorResponse("Too many screens connected", 503), HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		logger.info("Kitchen board screen connected");
+		return new ResponseEntity<>(emitter, HttpStatus.OK);
+	}
+}
@@ -1,5 +1,6 @@
 package com.proj.customerservice.controller;
 
+import com.proj.customerservice.exception.MenuException;
 import com.proj.customerservice.exception.TimeException;
 import com.proj.customerservice.util.ErrorResponse;
 import org.slf4j.Logger;
@@ -12,8 +13,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
+import com.proj.customerservice.beans.OrderBatchResultBean;
 import com.proj.customerservice.beans.OrderBean;
 import com.proj.customerservice.service.CustomerService;
 import com.proj.customerservice.service.OrderService;
@@ -34,6 +39,7 @@ import jakarta.validation.Valid;
  * 
  * Key endpoints include:
  * - POST /ordertemp/order: Places a new order.
+ * - POST /ordertemp/orders/batch: Places many orders at once.
  * - DELETE /ordertemp/order/{id}: Deletes an order based on its ID.
  * 
  * This controller relies on OrderService to perform business logic and interacts with
@@ -80,6 +86,30 @@ public class OrderController {
         }
     }
     
+    /**
+     * Place a batch of orders and write them to the database in one transaction.
+     * 
+     * @param orderBeans - the orders received as a JSON array in the request body.
+     * @return ResponseEntity - HTTP response with one result per order, in the submitted order.
+     */
+    @PostMapping("/orders/batch")
+    public ResponseEntity<?> placeOrders(@RequestBody List<OrderBean> orderBeans) {
+    	logger.info("Received request to place a batch of {} orders", orderBeans.size());
+    	try {
+    		List<OrderBatchResultBean> results = orderService.addOrders(orderBeans);
+    		return new ResponseEntity<>(results, HttpStatus.OK);
+    	} catch (IllegalArgumentException e) {
+    		logger.error("Rejected the batch of {} orders: {}", orderBeans.size(), e.getMessage());
+    		return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+    	} catch (RestClientException e) {
+    		logger.error("Could not validate the dishes of the batch of {} orders: {}", orderBeans.size(), e.getMessage());
+    		return new ResponseEntity<>(new ErrorResponse("Food Service unavailable", 503), HttpStatus.SERVICE_UNAVAILABLE);
+    	} catch (Exception e) {
+            logger.error("Failed to place the batch of {} orders", orderBeans.size(), e);
+            return new ResponseEntity<>("Failed to place orders", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     /**
      * Delete an existing order based on the order ID.
      * 
@@ -97,6 +127,9 @@ public class OrderController {
         	return response;
 		} catch (TimeException e) {
             return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 403), HttpStatus.FORBIDDEN);
+        } catch (MenuException e) {
+            logger.error("Order with id {} not found", id);
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
         }
         catch (Exception e) {
 			 logger.error("Failed to delete the order with id: {}", id, e);
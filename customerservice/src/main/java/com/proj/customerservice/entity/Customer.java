@@ -10,19 +10,29 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Represents a Customer entity in the system.
  * This entity is mapped to the "customer" table in the database.
+ * Email and phone number are unique, which registration relies on to reject duplicates.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = Customer.UNIQUE_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = Customer.UNIQUE_PHONE, columnNames = "phoneNumber") })
 public class Customer {
+    public static final String UNIQUE_EMAIL = "uk_customer_email";
+    public static final String UNIQUE_PHONE = "uk_customer_phone";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer customerId;// Unique identifier for the customer
@@ -35,9 +45,11 @@ public class Customer {
     private String city;        // City where the customer resides
     private String state;       // State where the customer resides
     private String zipCode;     // Zip code of the customer's address
-    private String passcode;    // Password or passcode for the customer
+    @ToString.Exclude
+    private String passcode;    // Password or passcode for the customer, never logged
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "customer")
     @JsonIgnore
+    @ToString.Exclude // Lazy collection, not loaded for logging
     private List<Orders> order;// List of orders associated with the customer
 }
\ No newline at end of file
@@ -10,9 +10,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -30,7 +32,14 @@ import lombok.NoArgsConstructor;
  * - dishId: The ID of the dish being ordered. It is annotated with @NotNull to ensure that this field
  *   cannot be null and must be provided.
  * - quantity: The quantity of the dish being ordered. This field is validated to be positive and non-null.
+ * - unitPrice: The price of the dish when the order was placed, as validated by the Food Service
+ *   (or its local replica), so that the order keeps its price when the menu changes.
+ * - lineTotal: unitPrice * quantity, the amount billed for the order.
  * - customer: A many-to-one relationship with the Customer entity, representing the customer who placed the order.
+ * - version: Optimistic locking version, so that an order updated concurrently is never overwritten silently.
+ * 
+ * The (customer, ordertime, orderId) index backs the keyset pagination of a customer's order history,
+ * the (status, ordertime) index the loading of the kitchen board.
  * 
  * This class is annotated with @Entity, meaning it is managed by JPA and mapped to a database table.
  * The validation annotations ensure that the dish ID and quantity are valid when persisted.
@@ -42,7 +51,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_time", columnList = "customer, ordertime, orderId"),
+        @Index(name = "idx_orders_status_time", columnList = "status, ordertime") })
 public class Orders {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -53,21 +64,27 @@ public class Orders {
     @NotNull(message = "Quantiy can't be empty")
     @Positive	// Ensures that the quantity is a positive number
     private Integer quantity; // The number of dishes ordered, must be positive and non-null
+    private Integer unitPrice; // Price of the dish when the order was placed, null for older orders
+    private Long lineTotal; // unitPrice * quantity, null for older orders
     private LocalDateTime ordertime;
     private Integer status;
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "customer")// Foreign key linking the order to the customer
     private Customer customer;// The customer who placed the order
+    @Version
+    private Long version; // Incremented on every update of the order
     
  // Logger for logging any relevant information about orders
     private static final Logger logger = LoggerFactory.getLogger(Orders.class);
 
     /**
-     * Logs the creation of a new order.
+     * Captures the price of the dish and computes the line total from the quantity.
+     *
+     * @param unitPrice the current price of the dish, or null if unknown
      */
-    public void logOrderCreation() {
-        logger.info("New order created with orderId: {}, dishId: {}, quantity: {}, customerId: {}", 
-                    this.orderId, this.dishId, this.quantity, this.customer.getCustomerId());
+    public void priceAt(Integer unitPrice) {
+        this.unitPrice = unitPrice;
+        this.lineTotal = unitPrice == null || quantity == null ? null : (long) unitPrice * quantity;
     }
 
     /**
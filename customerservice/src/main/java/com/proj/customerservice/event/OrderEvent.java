@@ -0,0 +1,31 @@
+package com.proj.customerservice.event;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order lifecycle event, as stored in the order outbox and delivered to the
+ * OrderEventSubscribers. It holds a copy of the order at the time of the event, so that
+ * subscribers don't need to read the order back.
+ *
+ * - eventId: ID of the outbox entry, set when the event is delivered. Delivery is at least
+ *   once, so subscribers can use it to ignore an event they already handled.
+ * - occurredAt: Time of the order change.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEvent {
+	private Long eventId;
+	private OrderEventType type;
+	private Integer orderId;
+	private Integer dishId;
+	private Integer customerId;
+	private Integer quantity;
+	private Integer status;
+	private LocalDateTime ordertime;
+	private LocalDateTime occurredAt;
+}
@@ -0,0 +1,30 @@
+package com.proj.customerservice.event;
+
+import java.util.List;
+
+/**
+ * In-process subscriber of the order lifecycle events (notifications, analytics, kitchen
+ * feeds...). Every Spring bean implementing it is called by OrderEventDispatcher, on the
+ * dispatcher thread, with the events in the order they were recorded.
+ *
+ * Delivery is at least once: when a subscriber throws, the events of the batch are delivered
+ * to it again one at a time, and the ones it still fails on later again, to the subscribers that
+ * failed on them only. Handling an event twice must be harmless (see eventId), and an event
+ * retried alone may come after later events of other orders.
+ */
+public interface OrderEventSubscriber {
+
+	/**
+	 * @param events the events of the batch, oldest first
+	 * @throws Exception to have the events delivered again
+	 */
+	void onEvents(List<OrderEvent> events) throws Exception;
+
+	/**
+	 * @return the name of the subscriber, used in the metrics and to record the events it has
+	 *         handled: it must not change between releases
+	 */
+	default String name() {
+		return getClass().getSimpleName();
+	}
+}
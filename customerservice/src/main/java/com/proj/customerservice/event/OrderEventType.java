@@ -0,0 +1,9 @@
+package com.proj.customerservice.event;
+
+/**
+ * Kinds of order lifecycle events published through the order outbox.
+ */
+public enum OrderEventType {
+	ORDER_CREATED, // An order was placed (single or batch)
+	ORDER_CANCELLED // An order was cancelled within its cancellation window
+}
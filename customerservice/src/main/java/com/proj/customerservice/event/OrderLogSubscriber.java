@@ -0,0 +1,29 @@
+package com.proj.customerservice.event;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the creation and cancellation of orders, off the request thread. This replaces the log
+ * line Orders used to write inline when an order was saved.
+ */
+@Component
+public class OrderLogSubscriber implements OrderEventSubscriber {
+
+	Logger logger = LoggerFactory.getLogger(OrderLogSubscriber.class);
+
+	@Override
+	public void onEvents(List<OrderEvent> events) {
+		for (OrderEvent event : events) {
+			if (event.getType() == OrderEventType.ORDER_CREATED) {
+				logger.info("New order created with orderId: {}, dishId: {}, quantity: {}, customerId: {}",
+						event.getOrderId(), event.getDishId(), event.getQuantity(), event.getCustomerId());
+			} else {
+				logger.info("Order cancelled with orderId: {}, customerId: {}", event.getOrderId(), event.getCustomerId());
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.proj.customerservice.exception;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.proj.customerservice.util.ErrorResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * ErrorResponseMetricsAdvice counts the ErrorResponse bodies sent to clients, whether they are
+ * returned by a controller or by an exception handler.
+ *
+ * The count is published as error.responses, tagged with the code of the ErrorResponse and the
+ * handler that produced it (e.g. code=404, handler=OrderController.placeOrder).
+ *
+ * The food and customer services have no module in common: this class is copied in both and
+ * must be kept identical, apart from the package.
+ *
+ * Annotations:
+ * - @ControllerAdvice: Applies the advice to the responses of every controller.
+ */
+@ControllerAdvice
+public class ErrorResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+	@Autowired
+	private MeterRegistry meterRegistry; // Registry the error counts are published to
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (body instanceof ErrorResponse error) {
+			String handler = returnType.getContainingClass().getSimpleName() + "." + returnType.getExecutable().getName();
+			meterRegistry.counter("error.responses", "code", String.valueOf(error.getCode()), "handler", handler).increment();
+		}
+		return body;
+	}
+}
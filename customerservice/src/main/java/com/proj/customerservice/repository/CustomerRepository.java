@@ -1,10 +1,15 @@
 package com.proj.customerservice.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.proj.customerservice.DTO.CustomerContactView;
 import com.proj.customerservice.entity.Customer;
 
 @Repository
@@ -27,4 +32,25 @@ public interface CustomerRepository extends JpaRepository<Customer, Integer> {
 	 * @return
 	 */
 	Customer findByPhoneNumber(String phoneNumber);
+	/**
+	 * Single round trip replacing findByEmail followed by findByPhoneNumber.
+	 *
+	 * @param email
+	 * @param phoneNumber
+	 * @return the contact details of the customers using the email or the phone number
+	 */
+	@Query("SELECT c.email AS email, c.phoneNumber AS phoneNumber FROM Customer c"
+			+ " WHERE c.email = :email OR c.phoneNumber = :phoneNumber")
+	List<CustomerContactView> findContacts(@Param("email") String email, @Param("phoneNumber") String phoneNumber);
+	/**
+	 * @return the contact details of every customer, to be consumed within a transaction
+	 */
+	@Query("SELECT c.email AS email, c.phoneNumber AS phoneNumber FROM Customer c")
+	Stream<CustomerContactView> streamAllContacts();
+	/**
+	 * @param customerIds
+	 * @return the IDs among customerIds that belong to an existing customer
+	 */
+	@Query("SELECT c.customerId FROM Customer c WHERE c.customerId IN :customerIds")
+	List<Integer> findExistingIds(@Param("customerIds") Collection<Integer> customerIds);
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.proj.customerservice.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.proj.customerservice.entity.Orders;
+
+/**
+ * Repository for inserting many orders at once with JDBC batch statements.
+ *
+ * Orders uses IDENTITY generated keys, which stops Hibernate from batching inserts, so bulk
+ * placement goes through plain JDBC instead: the orders are sent in batches of
+ * order.batch.jdbc-batch-size statements (rewritten into multi-row inserts by the MySQL
+ * driver when rewriteBatchedStatements is enabled) and the generated IDs are read back.
+ * It runs on the connection of the current transaction, so it commits or rolls back
+ * together with the rest of the caller's work.
+ */
+@Repository
+public class OrderBatchRepository {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (dishId, quantity, unitPrice, lineTotal, ordertime, status, customer) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${order.batch.jdbc-batch-size:100}")
+    int batchSize;
+
+    /**
+     * Inserts the given orders and sets their generated orderId.
+     *
+     * @param orders orders with dishId, quantity, ordertime, status and customer set, and their
+     *               price (unitPrice and lineTotal) if known
+     */
+    public void insertAll(List<Orders> orders) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ORDER, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < orders.size(); from += batchSize) {
+                    List<Orders> chunk = orders.subList(from, Math.min(from + batchSize, orders.size()));
+                    for (Orders order : chunk) {
+                        ps.setInt(1, order.getDishId());
+                        ps.setInt(2, order.getQuantity());
+                        ps.setObject(3, order.getUnitPrice(), Types.INTEGER);
+                        ps.setObject(4, order.getLineTotal(), Types.BIGINT);
+                        ps.setTimestamp(5, Timestamp.valueOf(order.getOrdertime()));
+                        ps.setInt(6, order.getStatus());
+                        ps.setInt(7, order.getCustomer().getCustomerId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Orders order : chunk) {
+                            if (keys.next()) {
+                                order.setOrderId(keys.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.proj.customerservice.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.customerservice.event.OrderEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Repository of the order_outbox table, the transactional outbox of the order lifecycle events.
+ *
+ * Events are appended with JDBC batch statements on the connection of the current transaction,
+ * so they are committed or rolled back together with the order change they describe. They are
+ * stored as JSON and claimed by OrderEventDispatcher, which deletes them once delivered to every
+ * subscriber. An event whose delivery failed keeps the names of the subscribers that already
+ * handled it (deliveredTo), so that it is only delivered again to the others.
+ */
+@Repository
+public class OrderOutboxRepository {
+
+    private static final String INSERT_EVENT = "INSERT INTO order_outbox (eventType, orderId, payload, createdAt, attempts, nextAttemptAt)"
+            + " VALUES (?, ?, ?, ?, 0, ?)";
+    // SKIP LOCKED: several instances of the service never dispatch the same event concurrently
+    private static final String SELECT_PENDING = "SELECT eventId, payload, attempts, createdAt, deliveredTo FROM order_outbox"
+            + " WHERE attempts < ? AND nextAttemptAt <= ? ORDER BY eventId LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * An event read from the outbox, with its delivery state.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class OutboxEntry {
+        private long eventId;
+        private int attempts; // Failed deliveries so far
+        private LocalDateTime createdAt;
+        private OrderEvent event;
+        private Set<String> deliveredTo; // Subscribers that already handled the event
+    }
+
+    /**
+     * A failed delivery of an event: the subscribers that handled it so far and when to try the others again.
+     */
+    public record Failure(long eventId, Set<String> deliveredTo, LocalDateTime nextAttemptAt) {
+    }
+
+    /**
+     * Appends events to the outbox, in the current transaction.
+     *
+     * @param events the events to publish once the transaction commits
+     */
+    public void append(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            Timestamp createdAt = Timestamp.valueOf(event.getOccurredAt());
+            ps.setString(1, event.getType().name());
+            ps.setInt(2, event.getOrderId());
+            ps.setString(3, toJson(event));
+            ps.setTimestamp(4, createdAt);
+            ps.setTimestamp(5, createdAt);
+        });
+    }
+
+    /**
+     * Reads and locks the oldest events due for delivery; must be called in a transaction.
+     *
+     * @param limit       maximum number of events returned
+     * @param maxAttempts events that already failed this many times are left out
+     * @param now         events whose next attempt is later than this are left out
+     * @return the events, oldest first
+     */
+    public List<OutboxEntry> lockPending(int limit, int maxAttempts, LocalDateTime now) {
+        return jdbcTemplate.query(SELECT_PENDING, (rs, rowNum) -> {
+            OrderEvent event = fromJson(rs.getString("payload"));
+            event.setEventId(rs.getLong("eventId"));
+            return new OutboxEntry(rs.getLong("eventId"), rs.getInt("attempts"),
+                    rs.getTimestamp("createdAt").toLocalDateTime(), event, fromNames(rs.getString("deliveredTo")));
+        }, maxAttempts, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Postpones the next attempt of events being delivered, without counting it as a failure;
+     * must be called in the transaction that locked them.
+     */
+    public void lease(List<Long> eventIds, LocalDateTime until) {
+        jdbcTemplate.batchUpdate("UPDATE order_outbox SET nextAttemptAt = ? WHERE eventId = ?", eventIds, eventIds.size(),
+                (ps, eventId) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(until));
+                    ps.setLong(2, eventId);
+                });
+    }
+
+    /**
+     * Removes delivered events.
+     */
+    public void delete(List<Long> eventIds) {
+        jdbcTemplate.batchUpdate("DELETE FROM order_outbox WHERE eventId = ?", eventIds, eventIds.size(),
+                (ps, eventId) -> ps.setLong(1, eventId));
+    }
+
+    /**
+     * Records failed deliveries of events, the subscribers that handled them and when to try them again.
+     */
+    public void markFailed(List<Failure> failures) {
+        jdbcTemplate.batchUpdate("UPDATE order_outbox SET attempts = attempts + 1, nextAttemptAt = ?, deliveredTo = ? WHERE eventId = ?",
+                failures, failures.size(), (ps, failure) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(failure.nextAttemptAt()));
+                    ps.setString(2, String.join(",", failure.deliveredTo()));
+                    ps.setLong(3, failure.eventId());
+                });
+    }
+
+    /**
+     * @param maxAttempts events that failed this many times are not counted
+     * @return the number of events waiting for delivery
+     */
+    public long countPending(int maxAttempts) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox WHERE attempts < ?", Long.class, maxAttempts);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @param maxAttempts events that failed this many times are not considered
+     * @return the creation time of the oldest event waiting for delivery, or null if there is none
+     */
+    public LocalDateTime findOldestPending(int maxAttempts) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(createdAt) FROM order_outbox WHERE attempts < ?", Timestamp.class, maxAttempts);
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+
+    /**
+     * @param maxAttempts number of attempts after which an event is given up
+     * @return the number of events given up, kept in the table for inspection
+     */
+    public long countDead(int maxAttempts) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox WHERE attempts >= ?", Long.class, maxAttempts);
+        return count == null ? 0 : count;
+    }
+
+    private static Set<String> fromNames(String names) {
+        Set<String> set = new LinkedHashSet<>();
+        if (names != null && !names.isEmpty()) {
+            set.addAll(Arrays.asList(names.split(",")));
+        }
+        return set;
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order event " + event, e);
+        }
+    }
+
+    private OrderEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read order event " + payload, e);
+        }
+    }
+}
@@ -1,14 +1,79 @@
 package com.proj.customerservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import com.proj.customerservice.entity.Customer;
+import com.proj.customerservice.DTO.OrderView;
 import com.proj.customerservice.entity.Orders;
 
 public interface OrderRepository  extends JpaRepository<Orders,Long>{    
+	// Columns selected by the OrderView projections; customerId is read from the foreign key, without a join
+	String ORDER_VIEW = "o.orderId AS orderId, o.dishId AS dishId, o.customer.customerId AS customerId,"
+			+ " o.status AS status, o.quantity AS quantity, o.unitPrice AS unitPrice, o.lineTotal AS lineTotal,"
+			+ " o.ordertime AS ordertime";
+
 	Orders findByOrderId(Integer id);
     void deleteByOrderId(Integer id);
-    List<Orders> findByCustomer(Customer customer);
+
+    /**
+     * @param id the ID of the order
+     * @return the order as a read-only projection, or null if it doesn't exist
+     */
+    @Query("SELECT " + ORDER_VIEW + " FROM Orders o WHERE o.orderId = :id")
+    OrderView findViewByOrderId(@Param("id") Integer id);
+
+    /**
+     * Cancels an order in a single statement, provided it is still placed (status 1) and was
+     * placed after the cutoff. The version is incremented, as a JPQL update bypasses @Version.
+     *
+     * @param id     the ID of the order
+     * @param cutoff orders placed at or before this time can no longer be cancelled
+     * @return 1 if the order was cancelled, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = 0, o.version = o.version + 1"
+            + " WHERE o.orderId = :id AND o.status = 1 AND o.ordertime > :cutoff")
+    int cancelIfPlacedAfter(@Param("id") Integer id, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Active orders (status 1) placed since a given time, oldest first, for the kitchen board.
+     * Backed by the idx_orders_status_time index on (status, ordertime).
+     *
+     * @param since only orders placed at or after this time
+     * @return the active orders
+     */
+    @Query("SELECT " + ORDER_VIEW + " FROM Orders o WHERE o.status = 1 AND o.ordertime >= :since"
+            + " ORDER BY o.ordertime, o.orderId")
+    List<OrderView> findActiveSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Keyset pagination over the orders of a customer, most recent first: returns the orders
+     * that come after (cursorTime, cursorId) in (ordertime, orderId) descending order.
+     * Backed by the idx_orders_customer_time index on (customer, ordertime, orderId).
+     *
+     * @param customerId the customer whose orders are returned
+     * @param cursorTime ordertime of the last order of the previous page
+     * @param cursorId   orderId of the last order of the previous page
+     * @param status     only orders with this status, or null for every status
+     * @param from       only orders placed at or after this time, or null
+     * @param to         only orders placed before this time, or null
+     * @param pageable   the page size (the page number is ignored)
+     * @return the next orders of the customer
+     */
+    @Query("SELECT " + ORDER_VIEW + " FROM Orders o WHERE o.customer.customerId = :customerId"
+            + " AND (o.ordertime < :cursorTime OR (o.ordertime = :cursorTime AND o.orderId < :cursorId))"
+            + " AND (:status IS NULL OR o.status = :status)"
+            + " AND (:from IS NULL OR o.ordertime >= :from)"
+            + " AND (:to IS NULL OR o.ordertime < :to)"
+            + " ORDER BY o.ordertime DESC, o.orderId DESC")
+    List<OrderView> findPageByCustomer(@Param("customerId") Integer customerId,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Integer cursorId,
+            @Param("status") Integer status, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            Pageable pageable);
 }
@@ -1,17 +1,32 @@
 package com.proj.customerservice.service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proj.customerservice.DTO.CustomerContactView;
+import com.proj.customerservice.beans.CustomerCacheConfig;
 import com.proj.customerservice.entity.Customer;
 import com.proj.customerservice.exception.EmailException;
 import com.proj.customerservice.exception.MenuException;
 import com.proj.customerservice.exception.PhoneException;
 import com.proj.customerservice.repository.CustomerRepository;
-
-import jakarta.transaction.Transactional;
+import com.proj.customerservice.util.BloomFilter;
+import com.proj.customerservice.util.ReadYourWritesGuard;
 
 /**
  * Service class that provides business logic related to customer operations.
@@ -24,6 +39,18 @@ import jakarta.transaction.Transactional;
  * - @Transactional: Indicates that the methods within this class are transactional.
  *   This ensures that all operations within a method are executed within a transaction context.
  *   If any operation fails, the transaction is rolled back to maintain data integrity.
+ * - @Cacheable: findById is served from the customer cache configured in CustomerCacheConfig,
+ *   so the database is only queried on a cache miss. Unknown customers are not cached, so a
+ *   registration has nothing to evict; customers are not updated by this service.
+ * 
+ * Registration relies on the unique constraints on email and phone number. A Bloom filter of
+ * the known emails and phone numbers, loaded at startup, answers the common "definitely new"
+ * case without any lookup; otherwise a single query checks both values. A duplicate that
+ * slips through (e.g. two concurrent registrations) is caught by the constraints and reported
+ * the same way.
+ * 
+ * findById runs on the read replica, except for a customer who registered less than
+ * datasource.replica.max-lag ms ago (see ReadYourWritesGuard).
  */
 
 @Service
@@ -33,46 +60,143 @@ public class CustomerService {
 	// Repository instance to interact with the database for customer operations
     @Autowired
     CustomerRepository customerRepository;
+    @Autowired
+    ReadYourWritesGuard readYourWritesGuard; // Sends the reads of a customer who just registered to the primary
+
+    @Value("${customer.bloom.expected-insertions:1000000}")
+    long bloomExpectedInsertions; // Number of emails and phone numbers the Bloom filter is sized for
+    @Value("${customer.bloom.false-positive-rate:0.01}")
+    double bloomFalsePositiveRate; // Share of new customers that still need the existence query
+
+    // Emails and phone numbers of the registered customers, null until loaded
+    private volatile BloomFilter knownContacts;
     
     // Logger instance for logging information and errors
     Logger logger =LoggerFactory.getLogger(CustomerService.class);
     
+    /**
+     * Loads the emails and phone numbers of the registered customers into the Bloom filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadKnownContacts() {
+    	BloomFilter filter = new BloomFilter(bloomExpectedInsertions * 2, bloomFalsePositiveRate);
+    	try (Stream<CustomerContactView> contacts = customerRepository.streamAllContacts()) {
+    		contacts.forEach(contact -> addContact(filter, contact.getEmail(), contact.getPhoneNumber()));
+    	}
+    	knownContacts = filter;
+    	logger.info("Loaded the emails and phone numbers of the registered customers");
+    }
+
     /**
      * Adds a new customer to the system.
      *
      * @param customer The Customer object to be added.
      * @return The saved Customer object after successful registration.
      * @throws EmailException If a customer with the same email already exists.
+     * @throws PhoneException If a customer with the same phone number already exists.
      * @throws Exception If any other error occurs during the process.
      */
+    @Transactional(rollbackFor = { EmailException.class, PhoneException.class })
     public Customer addService(Customer customer) throws MenuException ,EmailException,PhoneException,Exception{
-    	logger.info("Attempting to save the customer: {}", customer);
-    	// Check if a customer with the same email already exists
-         Customer cust=customerRepository.findByEmail(customer.getEmail());
-    	if(cust!=null) {
-    		logger.error("Email already exists. Can't register new customer with email: {}", customer.getEmail());
-    		throw new EmailException("Email already exists");  
-	} 	
-	Customer cust2=customerRepository.findByPhoneNumber(customer.getPhoneNumber());
-    	if(cust2!=null) {
-    		logger.error("Phone Number already exists. Can't register new customer with Phone Number: {}", customer.getPhoneNumber());
-    		throw new PhoneException("Phone number already exists");
+    	logger.info("Attempting to save the customer with email: {}", customer.getEmail());
+    	BloomFilter filter = knownContacts;
+    	if (filter == null || filter.mightContain(emailKey(customer.getEmail()))
+    			|| filter.mightContain(phoneKey(customer.getPhoneNumber()))) {
+    		// Check if a customer with the same email or phone number already exists, in one query
+    		List<CustomerContactView> existing = customerRepository.findContacts(customer.getEmail(), customer.getPhoneNumber());
+    		if (existing.stream().anyMatch(c -> customer.getEmail().equalsIgnoreCase(c.getEmail()))) {
+    			throw duplicateEmail(customer);
+    		}
+    		if (!existing.isEmpty()) {
+    			throw duplicatePhone(customer);
+    		}
+    	}
+    	logger.info("Saving the new customer with email: {}", customer.getEmail());
+    	Customer saved;
+    	try {
+    		// Flush now so that a violated unique constraint surfaces here
+    		saved = customerRepository.saveAndFlush(customer);
+    	} catch (DataIntegrityViolationException e) {
+    		String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+    		if (cause.contains(Customer.UNIQUE_EMAIL)) {
+    			throw duplicateEmail(customer);
+    		}
+    		if (cause.contains(Customer.UNIQUE_PHONE)) {
+    			throw duplicatePhone(customer);
+    		}
+    		throw e;
+    	}
+    	if (filter != null) {
+    		addContact(filter, saved.getEmail(), saved.getPhoneNumber());
+    	}
+    	readYourWritesGuard.recordWrite(saved.getCustomerId());
+        return saved;
+    }
+
+    private EmailException duplicateEmail(Customer customer) {
+    	logger.error("Email already exists. Can't register new customer with email: {}", customer.getEmail());
+    	return new EmailException("Email already exists");
+    }
+
+    private PhoneException duplicatePhone(Customer customer) {
+    	logger.error("Phone Number already exists. Can't register new customer with Phone Number: {}", customer.getPhoneNumber());
+    	return new PhoneException("Phone number already exists");
+    }
+
+    private static void addContact(BloomFilter filter, String email, String phoneNumber) {
+    	if (email != null) {
+    		filter.put(emailKey(email));
+    	}
+    	if (phoneNumber != null) {
+    		filter.put(phoneKey(phoneNumber));
     	}
-    	logger.info("Saving the new customer: {}", customer);
-        // Save the new customer to the database
-        return customerRepository.save(customer);
+    }
+
+    // The database compares emails without case, so does the filter
+    private static String emailKey(String email) {
+    	return "e:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String phoneKey(String phoneNumber) {
+    	return "p:" + phoneNumber;
     }
     
     /**
      * Finds a customer by their unique ID.
      *
      * @param customerId The unique ID of the customer to be retrieved.
-     * @return The Customer object if found, or null if no customer is found with the given ID.
+     * @return A detached copy of the Customer, without its orders, if found, or null if no
+     *         customer is found with the given ID.
      */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CustomerCacheConfig.CUSTOMER_CACHE, unless = "#result == null")
     public Customer findById(Integer customerId) {
     	logger.info("Finding the customer by ID: {}", customerId);
         // Retrieve the customer from the repository using the customer ID
-        return customerRepository.findByCustomerId(customerId);
+        Customer customer = readYourWritesGuard.read(customerId, () -> customerRepository.findByCustomerId(customerId));
+        return customer == null ? null : withoutOrders(customer);
+    }
+
+    // A copy that can be cached and shared: the lazy orders of the entity are left behind
+    private static Customer withoutOrders(Customer customer) {
+    	return new Customer(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+    			customer.getEmail(), customer.getPhoneNumber(), customer.getAddress(), customer.getCity(),
+    			customer.getState(), customer.getZipCode(), customer.getPasscode(), null);
+    }
+
+    /**
+     * Finds which of the given customer IDs exist, with a single query.
+     *
+     * @param customerIds The customer IDs to check.
+     * @return The subset of customerIds that belong to an existing customer.
+     */
+    public Set<Integer> findExistingIds(Collection<Integer> customerIds) {
+    	logger.info("Checking the existence of {} customers", customerIds.size());
+    	if (customerIds.isEmpty()) {
+    		return new HashSet<>();
+    	}
+        return new HashSet<>(customerRepository.findExistingIds(customerIds));
     }
 
     
@@ -0,0 +1,304 @@
+package com.proj.customerservice.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.proj.customerservice.DTO.OrderView;
+import com.proj.customerservice.beans.KitchenBoardBean;
+import com.proj.customerservice.beans.KitchenBoardChangeBean;
+import com.proj.customerservice.beans.KitchenDishBean;
+import com.proj.customerservice.beans.KitchenOrderBean;
+import com.proj.customerservice.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory index of the active orders (status 1) shown on the kitchen board, grouped by dish
+ * and ordered by (ordertime, orderId).
+ *
+ * It is loaded from the database at startup, then kept up to date by OrderService: placed and
+ * cancelled orders are applied once their transaction commits, so the board never shows an
+ * order that was rolled back. Orders older than kitchen.board.max-age ms are expired, as no
+ * status marks an order as served.
+ *
+ * Reads (snapshots) are lock-free over concurrent maps; changes are serialized by a short lock
+ * so that their versions are consecutive and streamed in order. The screens connected with
+ * stream() receive every change as a Server-Sent Event, sent by a single broadcaster thread so
+ * that a slow screen never delays an order. When more than kitchen.board.queue-capacity
+ * changes are waiting for the broadcaster, the new ones are dropped (counted in
+ * kitchen.board.changes.dropped) and the screens see a gap in the versions.
+ *
+ * Metrics: kitchen.board.orders (active orders), kitchen.board.screens (connected screens).
+ */
+@Service
+public class KitchenBoardService {
+
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${kitchen.board.max-age:14400000}")
+    long maxAge; // ms after which an active order leaves the board
+    @Value("${kitchen.board.max-screens:200}")
+    int maxScreens; // Maximum number of connected screens
+    @Value("${kitchen.board.screen-timeout:1800000}")
+    long screenTimeout; // ms after which a screen connection is closed (the screen reconnects)
+    @Value("${kitchen.board.queue-capacity:10000}")
+    int queueCapacity; // Changes waiting to be streamed before new ones are dropped
+
+    Logger logger = LoggerFactory.getLogger(KitchenBoardService.class);
+
+    /**
+     * Position of an order on the board.
+     */
+    record OrderKey(LocalDateTime ordertime, int orderId) implements Comparable<OrderKey> {
+        @Override
+        public int compareTo(OrderKey other) {
+            int byTime = ordertime.compareTo(other.ordertime);
+            return byTime != 0 ? byTime : Integer.compare(orderId, other.orderId);
+        }
+    }
+
+    private final Map<Integer, ConcurrentSkipListMap<OrderKey, KitchenOrderBean>> byDish = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<OrderKey, KitchenOrderBean> byTime = new ConcurrentSkipListMap<>(); // For expiry
+    private final Map<Integer, KitchenOrderBean> byOrderId = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final List<SseEmitter> screens = new CopyOnWriteArrayList<>();
+    private final Object changeLock = new Object();
+    private volatile KitchenBoardBean lastSnapshot;
+    private ThreadPoolExecutor broadcaster;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        dropped = meterRegistry.counter("kitchen.board.changes.dropped");
+        Gauge.builder("kitchen.board.orders", byOrderId, Map::size).register(meterRegistry);
+        Gauge.builder("kitchen.board.screens", screens, List::size).register(meterRegistry);
+        broadcaster = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("kitchen-board-"), (task, executor) -> dropped.increment());
+        rebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        broadcaster.shutdownNow();
+        screens.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * Loads the active orders of the last kitchen.board.max-age ms from the database.
+     */
+    void rebuild() {
+        List<OrderView> active = orderRepository.findActiveSince(LocalDateTime.now().minus(Duration.ofMillis(maxAge)));
+        synchronized (changeLock) {
+            active.forEach(order -> put(new KitchenOrderBean(order.getOrderId(), order.getDishId(),
+                    order.getCustomerId(), order.getQuantity(), order.getOrdertime())));
+        }
+        logger.info("Kitchen board loaded with {} active orders", active.size());
+    }
+
+    /**
+     * Adds orders to the board once the current transaction commits (at once without one).
+     *
+     * @param orders the orders placed
+     */
+    public void ordersPlaced(List<KitchenOrderBean> orders) {
+        afterCommit(() -> {
+            synchronized (changeLock) {
+                orders.forEach(order -> {
+                    if (put(order)) {
+                        publish(KitchenBoardChangeBean.Type.PLACED, order);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Removes an order from the board once the current transaction commits (at once without one).
+     *
+     * @param orderId the ID of the order cancelled
+     */
+    public void orderCancelled(Integer orderId) {
+        afterCommit(() -> {
+            synchronized (changeLock) {
+                KitchenOrderBean order = remove(orderId);
+                if (order != null) {
+                    publish(KitchenBoardChangeBean.Type.CANCELLED, order);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the orders placed more than kitchen.board.max-age ms ago.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.board.expiry-interval:60000}")
+    public void expire() {
+        OrderKey cutoff = new OrderKey(LocalDateTime.now().minus(Duration.ofMillis(maxAge)), Integer.MIN_VALUE);
+        int expired = 0;
+        synchronized (changeLock) {
+            for (KitchenOrderBean order : new ArrayList<>(byTime.headMap(cutoff).values())) {
+                if (remove(order.getOrderId()) != null) {
+                    publish(KitchenBoardChangeBean.Type.EXPIRED, order);
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            logger.info("Expired {} orders from the kitchen board", expired);
+        }
+    }
+
+    /**
+     * @param dishId only the orders of this dish, or null for every dish
+     * @return the current board
+     */
+    public KitchenBoardBean snapshot(Integer dishId) {
+        if (dishId != null) {
+            long current = version.get();
+            ConcurrentSkipListMap<OrderKey, KitchenOrderBean> orders = byDish.get(dishId);
+            return new KitchenBoardBean(current, orders == null ? List.of() : List.of(toDishBean(dishId, orders)));
+        }
+        KitchenBoardBean board = lastSnapshot;
+        long current = version.get();
+        if (board == null || board.getVersion() != current) {
+            // Read before copying: the copy holds at least the changes up to this version
+            List<KitchenDishBean> dishes = new ArrayList<>();
+            new ConcurrentSkipListMap<>(byDish).forEach((id, orders) -> {
+                KitchenDishBean dish = toDishBean(id, orders);
+                if (!dish.getOrders().isEmpty()) {
+                    dishes.add(dish);
+                }
+            });
+            board = new KitchenBoardBean(current, dishes);
+            lastSnapshot = board;
+        }
+        return board;
+    }
+
+    /**
+     * Connects a screen: it receives the current board as a "board" event, then every change
+     * as a "change" event.
+     *
+     * @return the emitter of the stream, or null when kitchen.board.max-screens are connected
+     */
+    public SseEmitter stream() {
+        if (screens.size() >= maxScreens) {
+            return null;
+        }
+        SseEmitter screen = new SseEmitter(screenTimeout);
+        screen.onCompletion(() -> screens.remove(screen));
+        screen.onTimeout(() -> screens.remove(screen));
+        screen.onError(e -> screens.remove(screen));
+        // On the broadcaster thread, so that no change is streamed to the screen before its board;
+        // under the change lock, so that every change is either in the board or streamed after it
+        broadcaster.execute(() -> {
+            try {
+                KitchenBoardBean board;
+                synchronized (changeLock) {
+                    board = snapshot(null);
+                    screens.add(screen);
+                }
+                screen.send(SseEmitter.event().id(String.valueOf(board.getVersion())).name("board").data(board));
+            } catch (IOException | IllegalStateException e) {
+                screens.remove(screen);
+                screen.completeWithError(e);
+            }
+        });
+        return screen;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private boolean put(KitchenOrderBean order) {
+        if (byOrderId.putIfAbsent(order.getOrderId(), order) != null) {
+            return false;
+        }
+        OrderKey key = new OrderKey(order.getOrdertime(), order.getOrderId());
+        byDish.computeIfAbsent(order.getDishId(), id -> new ConcurrentSkipListMap<>()).put(key, order);
+        byTime.put(key, order);
+        return true;
+    }
+
+    private KitchenOrderBean remove(Integer orderId) {
+        KitchenOrderBean order = byOrderId.remove(orderId);
+        if (order == null) {
+            return null;
+        }
+        OrderKey key = new OrderKey(order.getOrdertime(), order.getOrderId());
+        ConcurrentNavigableMap<OrderKey, KitchenOrderBean> orders = byDish.get(order.getDishId());
+        if (orders != null) {
+            orders.remove(key);
+            if (orders.isEmpty()) {
+                byDish.remove(order.getDishId()); // Changes are serialized: no order can be added meanwhile
+            }
+        }
+        byTime.remove(key);
+        return order;
+    }
+
+    // Called with changeLock held, so that versions are queued in order
+    private void publish(KitchenBoardChangeBean.Type type, KitchenOrderBean order) {
+        KitchenBoardChangeBean change = new KitchenBoardChangeBean(version.incrementAndGet(), type, order);
+        if (screens.isEmpty()) {
+            return;
+        }
+        broadcaster.execute(() -> {
+            for (SseEmitter screen : screens) {
+                try {
+                    screen.send(SseEmitter.event().id(String.valueOf(change.getVersion())).name("change").data(change));
+                } catch (IOException | IllegalStateException e) {
+                    // Disconnected screen
+                    screens.remove(screen);
+                    screen.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    private static KitchenDishBean toDishBean(Integer dishId, ConcurrentSkipListMap<OrderKey, KitchenOrderBean> orders) {
+        List<KitchenOrderBean> list = new ArrayList<>(orders.values());
+        int quantity = list.stream().mapToInt(KitchenOrderBean::getQuantity).sum();
+        return new KitchenDishBean(dishId, quantity, list);
+    }
+}
@@ -0,0 +1,114 @@
+package com.proj.customerservice.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import com.proj.customerservice.beans.DishBean;
+import com.proj.customerservice.beans.MenuCatalogBean;
+
+/**
+ * MenuReplicaService keeps a local, in-memory replica of the dishes offered by the Food Service
+ * (dish ID and unit price), so that placing an order does not need a remote call to find out
+ * whether the ordered dish exists.
+ *
+ * The replica is bootstrapped with a full snapshot of the Food Service catalog once the
+ * application is ready, and then kept up to date by polling the catalog feed for the changes
+ * since the version it holds (menu.replica.refresh-interval). The Food Service answers with a
+ * full snapshot whenever a delta can't be built, e.g. after it was restarted.
+ *
+ * When the Food Service is unavailable the replica simply keeps its last known state; dishes
+ * that are not in the replica are still checked remotely by OrderService.
+ */
+@Service
+public class MenuReplicaService {
+
+    @Autowired
+    RestTemplate restTemplate; // RestTemplate for making HTTP calls to the Food Service.
+
+    @Value("${foodservice.url}")
+    String foodServiceUrl; // Base URL of the Food Service.
+
+    Logger logger = LoggerFactory.getLogger(MenuReplicaService.class);
+
+    private final Map<Integer, Integer> unitPrices = new ConcurrentHashMap<>(); // dishId -> unit price
+    private volatile String catalogId;
+    private volatile long version;
+
+    /**
+     * Loads the full catalog once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        logger.info("Bootstrapping the menu replica from {}", foodServiceUrl);
+        refresh();
+    }
+
+    /**
+     * Applies the changes of the Food Service catalog since the version held by the replica.
+     */
+    @Scheduled(initialDelayString = "${menu.replica.refresh-interval:30000}", fixedDelayString = "${menu.replica.refresh-interval:30000}")
+    public synchronized void refresh() {
+        try {
+            // URI templates, so that every poll shares the same uri tag in http.client.requests
+            MenuCatalogBean catalog = catalogId == null
+                    ? restTemplate.getForObject(foodServiceUrl + "/dish/catalog", MenuCatalogBean.class)
+                    : restTemplate.getForObject(foodServiceUrl + "/dish/catalog?catalogId={catalogId}",
+                            MenuCatalogBean.class, catalogId);
+            if (catalog == null) {
+                return;
+            }
+            if (catalog.isFull()) {
+                unitPrices.keySet().retainAll(catalog.getDishes().stream().map(DishBean::getDishId).toList());
+            } else {
+                catalog.getRemoved().forEach(unitPrices::remove);
+            }
+            catalog.getDishes().forEach(dish -> unitPrices.put(dish.getDishId(), dish.getUnitPrice()));
+            // The catalogId names the snapshot on every Food Service instance, the version on one only
+            if (!catalog.getCatalogId().equals(catalogId)) {
+                logger.info("Menu replica updated to version {} (full: {}), {} dishes known", catalog.getVersion(),
+                        catalog.isFull(), unitPrices.size());
+            }
+            catalogId = catalog.getCatalogId();
+            version = catalog.getVersion();
+        } catch (Exception e) {
+            logger.warn("Could not refresh the menu replica, keeping version {}: {}", version, e.getMessage());
+        }
+    }
+
+    /**
+     * @param dishId the ID of the dish
+     * @return true if the dish is present in the replica
+     */
+    public boolean isKnownDish(Integer dishId) {
+        return unitPrices.containsKey(dishId);
+    }
+
+    /**
+     * @param dishId the ID of the dish
+     * @return the unit price of the dish, or null if the dish is not in the replica
+     */
+    public Integer getUnitPrice(Integer dishId) {
+        return unitPrices.get(dishId);
+    }
+
+    /**
+     * Adds a dish validated remotely, so that the next orders for it are validated locally.
+     *
+     * @param dish the dish returned by the Food Service
+     */
+    public void register(DishBean dish) {
+        if (dish != null && dish.getDishId() != null && dish.getUnitPrice() != null) {
+            unitPrices.put(dish.getDishId(), dish.getUnitPrice());
+        }
+    }
+}
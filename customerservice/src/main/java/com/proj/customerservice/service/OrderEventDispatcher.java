@@ -0,0 +1,223 @@
+package com.proj.customerservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.event.OrderEventSubscriber;
+import com.proj.customerservice.repository.OrderOutboxRepository;
+import com.proj.customerservice.repository.OrderOutboxRepository.Failure;
+import com.proj.customerservice.repository.OrderOutboxRepository.OutboxEntry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Delivers the order lifecycle events recorded in the order outbox to the OrderEventSubscribers.
+ *
+ * Every order.outbox.poll-interval ms it claims the oldest order.outbox.batch-size pending events
+ * in a short transaction, which pushes their next attempt order.outbox.lease ms ahead so that no
+ * other poller picks them up, and commits before handing them to the subscribers: a slow
+ * subscriber doesn't hold the row locks. Delivered events are then deleted; full batches are
+ * followed by the next one straight away, so a burst of orders is drained without waiting for
+ * the next poll. When a subscriber throws on a batch, the batch is delivered to it again one event
+ * at a time, so that only the events it actually fails on are kept: the others are deleted once
+ * every subscriber has handled them, and one failing event doesn't hold back the events of other
+ * orders. A failed event is tried again after order.outbox.retry-backoff ms, doubled on every
+ * failure of that event up to order.outbox.max-backoff ms, and only with the subscribers that
+ * failed on it (the others are recorded in deliveredTo). After order.outbox.max-attempts failures
+ * an event is given up and left in the table for inspection. Events whose delivery outlasts the
+ * lease (or whose instance stops before deleting them) are delivered again: delivery is at least
+ * once, an event retried alone may reach a subscriber after later ones, and subscribers skip the
+ * eventIds they have already seen.
+ *
+ * Metrics:
+ * - order.outbox.events: events handled, tagged with result=published|failed|dead.
+ * - order.outbox.dispatch: time of the delivery of a batch to a subscriber, tagged with
+ *   subscriber and outcome=success|error.
+ * - order.outbox.pending: events waiting for delivery; order.outbox.lag: age in ms of the
+ *   oldest of them. A growing lag means the subscribers don't keep up with the orders.
+ * - order.outbox.dead: events given up.
+ */
+@Service
+public class OrderEventDispatcher {
+
+    @Autowired
+    OrderOutboxRepository outboxRepository; // Pending events
+    @Autowired
+    List<OrderEventSubscriber> subscribers; // Every in-process subscriber of the order events
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${order.outbox.batch-size:100}")
+    int batchSize; // Maximum number of events delivered at once
+    @Value("${order.outbox.max-attempts:10}")
+    int maxAttempts; // Failed deliveries after which an event is given up
+    @Value("${order.outbox.retry-backoff:1000}")
+    long retryBackoff; // ms before the first retry of a failed batch
+    @Value("${order.outbox.max-backoff:60000}")
+    long maxBackoff; // Maximum ms between two retries
+    @Value("${order.outbox.lease:30000}")
+    long lease; // ms during which claimed events are hidden from the other pollers
+
+    Logger logger = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lag = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private TransactionTemplate transactionTemplate;
+    private Counter published;
+    private Counter failed;
+    private Counter givenUp;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        published = meterRegistry.counter("order.outbox.events", "result", "published");
+        failed = meterRegistry.counter("order.outbox.events", "result", "failed");
+        givenUp = meterRegistry.counter("order.outbox.events", "result", "dead");
+        Gauge.builder("order.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("order.outbox.lag", lag, AtomicLong::get).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("order.outbox.dead", dead, AtomicLong::get).register(meterRegistry);
+        logger.info("Dispatching order events to {} subscribers", subscribers.size());
+    }
+
+    /**
+     * Delivers the pending events, one batch after the other while the batches are full.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval:500}")
+    public void dispatch() {
+        try {
+            Integer delivered;
+            do {
+                delivered = dispatchBatch();
+            } while (delivered == batchSize);
+            updateBacklog();
+        } catch (Exception e) {
+            // The events stay in the outbox: the next poll tries again
+            logger.error("Order event dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of events claimed, or -1 when some of them failed
+     */
+    private int dispatchBatch() {
+        List<OutboxEntry> entries = transactionTemplate.execute(status -> claimBatch());
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Exception> failures = new LinkedHashMap<>(); // First failure of each failed event, by eventId
+        for (OrderEventSubscriber subscriber : subscribers) {
+            List<OutboxEntry> todo = entries.stream().filter(entry -> !entry.getDeliveredTo().contains(subscriber.name())).toList();
+            if (todo.isEmpty()) {
+                continue;
+            }
+            try {
+                deliver(subscriber, todo);
+            } catch (Exception e) {
+                if (todo.size() == 1) {
+                    failures.putIfAbsent(todo.get(0).getEventId(), e);
+                    continue;
+                }
+                // One at a time, to find the events it fails on
+                logger.warn("Subscriber {} failed on a batch of {} events, delivering them one at a time: {}", subscriber.name(),
+                        todo.size(), e.getMessage());
+                for (OutboxEntry entry : todo) {
+                    try {
+                        deliver(subscriber, List.of(entry));
+                    } catch (Exception eventFailure) {
+                        failures.putIfAbsent(entry.getEventId(), eventFailure);
+                    }
+                }
+            }
+        }
+
+        List<Long> delivered = entries.stream().filter(entry -> !failures.containsKey(entry.getEventId())).map(OutboxEntry::getEventId).toList();
+        if (!delivered.isEmpty()) {
+            outboxRepository.delete(delivered);
+            published.increment(delivered.size());
+        }
+        if (failures.isEmpty()) {
+            return entries.size();
+        }
+        retryLater(entries.stream().filter(entry -> failures.containsKey(entry.getEventId())).toList(), failures);
+        return -1;
+    }
+
+    /**
+     * Hands events to a subscriber and records that it handled them.
+     */
+    private void deliver(OrderEventSubscriber subscriber, List<OutboxEntry> entries) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            subscriber.onEvents(entries.stream().map(OutboxEntry::getEvent).toList());
+            sample.stop(dispatchTimer(subscriber, "success"));
+        } catch (Exception e) {
+            sample.stop(dispatchTimer(subscriber, "error"));
+            throw e;
+        }
+        entries.forEach(entry -> entry.getDeliveredTo().add(subscriber.name()));
+    }
+
+    /**
+     * Locks the oldest pending events and leases them, so that they stay claimed once committed.
+     */
+    private List<OutboxEntry> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEntry> entries = outboxRepository.lockPending(batchSize, maxAttempts, now);
+        if (!entries.isEmpty()) {
+            outboxRepository.lease(entries.stream().map(OutboxEntry::getEventId).toList(), now.plus(Duration.ofMillis(lease)));
+        }
+        return entries;
+    }
+
+    private void retryLater(List<OutboxEntry> entries, Map<Long, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Failure> retries = new ArrayList<>();
+        for (OutboxEntry entry : entries) {
+            Exception e = failures.get(entry.getEventId());
+            int attempts = entry.getAttempts() + 1;
+            long backoff = Math.min(maxBackoff, retryBackoff << Math.min(attempts - 1, 20));
+            retries.add(new Failure(entry.getEventId(), entry.getDeliveredTo(), now.plus(Duration.ofMillis(backoff))));
+            if (attempts >= maxAttempts) {
+                givenUp.increment();
+                logger.error("Order event {} given up after {} attempts: {}", entry.getEventId(), maxAttempts, e.getMessage());
+            } else {
+                logger.warn("Order event {} failed, retrying in {} ms: {}", entry.getEventId(), backoff, e.getMessage());
+            }
+        }
+        outboxRepository.markFailed(retries);
+        failed.increment(retries.size());
+    }
+
+    private void updateBacklog() {
+        pending.set(outboxRepository.countPending(maxAttempts));
+        LocalDateTime oldest = outboxRepository.findOldestPending(maxAttempts);
+        lag.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        dead.set(outboxRepository.countDead(maxAttempts));
+    }
+
+    private Timer dispatchTimer(OrderEventSubscriber subscriber, String outcome) {
+        return meterRegistry.timer("order.outbox.dispatch", "subscriber", subscriber.name(), "outcome", outcome);
+    }
+}
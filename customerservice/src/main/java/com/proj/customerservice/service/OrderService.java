@@ -1,27 +1,63 @@
 package com.proj.customerservice.service;
 
+import java.net.SocketTimeoutException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import com.proj.customerservice.exception.EmailException;
+import com.proj.customerservice.exception.MenuException;
 import com.proj.customerservice.exception.TimeException;
-import com.proj.customerservice.util.TimeDifferenceChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.proj.customerservice.DTO.OrderView;
+import com.proj.customerservice.beans.DishBatchBean;
+import com.proj.customerservice.beans.DishBean;
+import com.proj.customerservice.beans.KitchenOrderBean;
+import com.proj.customerservice.beans.OrderBatchResultBean;
 import com.proj.customerservice.beans.OrderBean;
+import com.proj.customerservice.beans.OrderPageBean;
 import com.proj.customerservice.beans.OrderReturnBean;
 import com.proj.customerservice.entity.Customer;
 import com.proj.customerservice.entity.Orders;
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.event.OrderEventType;
+import com.proj.customerservice.repository.OrderBatchRepository;
+import com.proj.customerservice.repository.OrderOutboxRepository;
 import com.proj.customerservice.repository.OrderRepository;
 import com.proj.customerservice.util.ErrorResponse;
+import com.proj.customerservice.util.OrderCursor;
+import com.proj.customerservice.util.ReadYourWritesGuard;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 /**
  * OrderService is responsible for managing the business logic related to customer orders.
@@ -29,19 +65,40 @@ import jakarta.transaction.Transactional;
  * customer information, removing existing orders, and retrieving orders associated with 
  * a specific customer.
  * 
- * The service handles interactions with external services (such as validating dishes
- * through a RestTemplate call) and database operations (via OrderRepository) within
+ * The service handles interactions with external services (dishes are validated against
+ * the local MenuReplicaService and, when unknown to it, through a RestTemplate call to the
+ * Food Service) and database operations (via OrderRepository) within
  * transactional boundaries. It also ensures that all necessary validations are performed 
  * before any data is persisted or deleted.
  * 
  * The key methods include:
  * - addOrder: Places a new order, validates the dish and customer, and saves the order to the database.
- * - removeOrder: Deletes an order by its ID.
- * - getOrdersByCustomer: Retrieves a list of orders associated with a given customer.
+ * - addOrders: Places a batch of orders, validating each distinct dish and customer once and
+ *   inserting the valid orders with JDBC batch statements.
+ * - removeOrder: Cancels an order by its ID, within 10 minutes of placing it.
+ * - getOrdersByCustomer: Retrieves a page of the orders associated with a given customer.
+ * 
+ * Every order created or cancelled is recorded as an OrderEvent in the order outbox, in the
+ * transaction of the change, and delivered afterwards to the OrderEventSubscribers by
+ * OrderEventDispatcher: side effects (notifications, analytics...) don't run on the request thread.
+ * The kitchen board (KitchenBoardService) is updated directly, once the transaction commits.
+ * 
+ * getOrdersByCustomer is read-only and runs on the read replica, except for a customer who
+ * placed or cancelled an order less than datasource.replica.max-lag ms ago: their history is
+ * read from the primary so that it shows the change (see ReadYourWritesGuard).
  * 
  * Logging is integrated into the service to track the workflow and capture any errors
  * that may occur during operations.
  * 
+ * Metrics (percentiles and histograms are configured in application.properties):
+ * - order.operation: time of addOrder, addOrders and removeOrder, tagged with
+ *   operation=add|add_batch|remove and outcome=success|not_found|rejected|error.
+ * - order.add.phase: time of each phase of addOrder, tagged with
+ *   phase=dish_validation|customer_lookup|save, target=replica|foodservice|database
+ *   and the same outcome values.
+ * The calls to the Food Service are also timed by Spring as http.client.requests
+ * (client.name=foodservice), with the URI templates as uri tag.
+ * 
  * This class is annotated with @Service and @Transactional to ensure that the service
  * layer is properly managed by Spring and that database transactions are automatically
  * handled for all methods.
@@ -52,120 +109,473 @@ public class OrderService {
 
     @Autowired
     OrderRepository orderRepository;// Repository for database operations related to Orders.
+    @Autowired
+    OrderBatchRepository orderBatchRepository;// Repository for JDBC batch inserts of Orders.
+    @Autowired
+    OrderOutboxRepository outboxRepository; // Outbox of the order lifecycle events.
+    @Autowired
+    KitchenBoardService kitchenBoardService; // In-memory board of the active orders.
+    @Autowired
+    ReadYourWritesGuard readYourWritesGuard; // Sends the reads of a customer who just ordered to the primary.
+    @Autowired
+    Validator validator; // Bean validator, used for the orders of a batch.
     
     @Autowired
     RestTemplate restTemplate; // RestTemplate for making HTTP calls to other services.
     @Autowired
     CustomerService customerService; // Service to handle customer-related logic.
+    @Autowired
+    MenuReplicaService menuReplicaService; // Local replica of the Food Service dishes.
+    @Autowired
+    ExecutorService orderValidationExecutor; // Runs the remote dish check of an order while the customer is looked up.
+    @Autowired
+    MeterRegistry meterRegistry; // Registry of the order metrics.
+
+    @Value("${foodservice.url}")
+    String foodServiceUrl; // Base URL of the Food Service.
+    @Value("${order.validation.timeout:2500}")
+    long validationTimeout; // Maximum time in ms to wait for the validations of an order.
+
+    @Value("${order.batch.max-size:1000}")
+    int batchMaxSize; // Maximum number of orders accepted in one batch.
+    @Value("${menu.batch.max-ids:500}")
+    int dishBatchMaxIds; // Maximum number of dishes the Food Service returns per batch lookup.
+    @Value("${order.history.page-size:20}")
+    int defaultPageSize; // Number of orders per page of order history by default.
+    @Value("${order.history.max-page-size:100}")
+    int maxPageSize; // Maximum number of orders per page of order history.
+
+    static final int CANCELLATION_WINDOW_MINUTES = 10; // An order can be cancelled this long after it was placed.
 
     Logger logger =LoggerFactory.getLogger(OrderService.class);// Logger for logging information and errors.
     
     /**
      * Add a new order. Validates if the dish and customer exist before saving the order.
      * 
+     * The customer is looked up on the calling thread, in its transaction. When the dish is
+     * unknown to the menu replica, the Food Service is asked on the order validation executor
+     * meanwhile, so the validation takes as long as the slower of the two instead of their sum;
+     * when the replica knows the dish there is nothing to run in parallel and no thread hop.
+     * An unknown customer or dish (a 404 from the Food Service) is answered with 404, a Food
+     * Service that doesn't answer within order.validation.timeout (or times out in the HTTP
+     * client) with 504, and one that can't be reached or fails (5xx) with 503.
+     * 
+     * The unit price the dish was validated at (by the replica or the Food Service) is stored
+     * on the order together with the line total, so bills never call the Food Service again.
+     * 
      * @param ordersDTO - The details of the order to be placed.
      * @return ResponseEntity - HTTP response with the result of the operation.
      */
     public ResponseEntity<?> addOrder(OrderBean ordersDTO) {
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	ResponseEntity<?> response = placeOrder(ordersDTO);
+    	sample.stop(operationTimer("add", outcome(response.getStatusCode())));
+    	return response;
+    }
+
+    private ResponseEntity<?> placeOrder(OrderBean ordersDTO) {
     	 Orders order = new Orders();// Create a new order instance.
          order.setDishId(ordersDTO.getDishId());// Set the dish ID for the order.
          order.setQuantity(ordersDTO.getQuantity());// Set the quantity for the order.
-         
-         try {
-        	// Validate if the dish is present by calling the Food Service.
-        	 logger.info("Checking if the dish with id {} is valid", ordersDTO.getDishId());
-        	 String url = "http://localhost:9091/client1/dish/" + ordersDTO.getDishId(); // Construct the URL to check dish validity.
-        	
-        	 // Making a GET request to the Food Service.
-        	 ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        	 logger.info("Dish with id {} is valid. Response from service: {}", ordersDTO.getDishId(), response);
 
+         // Validate if the dish is present, using the local menu replica first.
+         logger.info("Checking if the dish with id {} is valid", ordersDTO.getDishId());
+         Future<DishBean> dishCheck = null;
+         Timer.Sample replicaCheck = Timer.start(meterRegistry);
+         Integer unitPrice = menuReplicaService.getUnitPrice(ordersDTO.getDishId()); // Captured on the order
+         if (unitPrice != null) {
+        	 replicaCheck.stop(phaseTimer("dish_validation", "replica", "success"));
+        	 logger.info("Dish with id {} is valid according to the menu replica", ordersDTO.getDishId());
+         } else {
+        	 // Unknown to the replica (e.g. added since the last refresh): ask the Food Service while the customer is looked up.
+        	 dishCheck = orderValidationExecutor.submit(() -> timePhase("dish_validation", "foodservice", () -> checkDishRemotely(ordersDTO.getDishId())));
+         }
+         // Validate if the customer exists in the system, on this thread and in this transaction.
+         logger.info("Checking if the customer with id {} is valid", ordersDTO.getCustomerId());
+         Customer customer;
+         try {
+        	 customer = timePhase("customer_lookup", "database", () -> customerService.findById(ordersDTO.getCustomerId()));
+         } catch (Exception e) {
+        	 cancel(dishCheck);
+        	 logger.error("An error occurred while validating the customer: {}", e.getMessage());
+        	 return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
+         }
+         if (customer == null) {
+        	 cancel(dishCheck);
+        	 logger.error("Customer with id {} not found.", ordersDTO.getCustomerId());
+        	 return new ResponseEntity<>(new ErrorResponse("Customer not found", 404),HttpStatus.NOT_FOUND); // Or handle as needed
+         }
+         if (dishCheck != null) {
         	 try {
-        		// Validate if the customer exists in the system.
-        		 
-                 logger.info("Checking if the customer with id {} is valid", ordersDTO.getCustomerId());
-                 Customer customer = customerService.findById(ordersDTO.getCustomerId());
-        		 if (customer == null) {
-        			 logger.error("Customer with id {} not found.", ordersDTO.getCustomerId());
-        			 return new ResponseEntity<>(new ErrorResponse("Customer not found", 404),HttpStatus.NOT_FOUND); // Or handle as needed
-        		 }
-        		// Customer is valid, set customer information in the order.
-        		 order.setCustomer(customer);
-        		 logger.info("Customer with id {} is valid. Customer info: {}", ordersDTO.getCustomerId(), customer);
-        		try {
-        			// Save the order to the database and return the response.
-        			LocalDateTime now = LocalDateTime.now();
-        			order.setOrdertime(now);
-        			order.setStatus(1);
-           		 Orders savedOrder = orderRepository.save(order);
-           	     // Log the order creation
-           	     savedOrder.logOrderCreation();
-                    logger.info("Order saved successfully: {}", savedOrder);
-				 OrderReturnBean obean=new OrderReturnBean();
-				 obean.setCustomerId(savedOrder.getCustomer().getCustomerId());
-				 obean.setStatus(savedOrder.getStatus());
-				 obean.setQuantity(savedOrder.getQuantity());
-				 obean.setDishId(savedOrder.getDishId());
-				 obean.setOrderId(savedOrder.getOrderId());
-           		 return new ResponseEntity<>(obean, HttpStatus.CREATED);
-        		}catch(Exception e) {
-        		Orders savedOrder=new Orders();
-        		savedOrder.logOrderError(e.getMessage());
-        		return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 406), HttpStatus.NOT_ACCEPTABLE);
-        		}
-        	 } catch (Exception e) {
-        		 // Catch and log exceptions related to customer validation or other issues.
-        		 logger.error("An error occurred while validating customer or saving the order: {}", e.getMessage());
-        	 	 return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
+        		 DishBean dish = dishCheck.get(validationTimeout, TimeUnit.MILLISECONDS);
+        		 unitPrice = dish == null ? null : dish.getUnitPrice();
+        	 } catch (TimeoutException e) {
+        		 // The Food Service didn't answer in time: a failure on our side, not an unknown dish
+        		 cancel(dishCheck);
+        		 logger.error("Validation of the dish timed out after {} ms", validationTimeout);
+        		 return new ResponseEntity<>(new ErrorResponse("Order validation timed out", 504), HttpStatus.GATEWAY_TIMEOUT);
+        	 } catch (ExecutionException e) {
+        		 // Catch and log exceptions related to dish validation.
+        		 logger.error("An error occurred while validating the dish: {}", e.getCause().getMessage());
+        		 return dishCheckFailure(e.getCause());
+        	 } catch (InterruptedException e) {
+        		 cancel(dishCheck);
+        		 Thread.currentThread().interrupt();
+        		 return new ResponseEntity<>(new ErrorResponse("Order validation interrupted", 503), HttpStatus.SERVICE_UNAVAILABLE);
         	 }
-         
-         } catch (Exception e) {
-        	// Catch and log exceptions related to dish validation.
-        	logger.error("An error occurred while validating the dish: {}", e.getMessage());
-            return new ResponseEntity<>(new ErrorResponse("Dish not found", 404), HttpStatus.NOT_FOUND);
-        }    
+         }
+
+         // Customer is valid, set customer information in the order.
+         order.setCustomer(customer);
+         // The price the dish was validated at is the price of the order, whatever the menu says later
+         order.priceAt(unitPrice);
+         logger.info("Customer with id {} is valid", ordersDTO.getCustomerId());
+         try {
+        	 // Save the order to the database and return the response.
+        	 LocalDateTime now = LocalDateTime.now();
+        	 order.setOrdertime(now);
+        	 order.setStatus(1);
+        	 Orders savedOrder = timePhase("save", "database", () -> {
+        		 Orders saved = orderRepository.save(order);
+        		 // Recorded in the same transaction: the event exists if and only if the order does
+        		 outboxRepository.append(List.of(createdEvent(saved, ordersDTO.getCustomerId())));
+        		 return saved;
+        	 });
+        	 kitchenBoardService.ordersPlaced(List.of(toKitchenOrder(savedOrder, ordersDTO.getCustomerId())));
+        	 readYourWritesGuard.recordWrite(ordersDTO.getCustomerId());
+        	 logger.info("Order {} saved successfully", savedOrder.getOrderId());
+        	 return new ResponseEntity<>(toReturnBean(savedOrder, ordersDTO.getCustomerId()), HttpStatus.CREATED);
+         }catch(Exception e) {
+        	 // The error is answered, not thrown: roll back explicitly so neither the order nor its event is kept
+        	 TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        	 Orders savedOrder=new Orders();
+        	 savedOrder.logOrderError(e.getMessage());
+        	 return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 406), HttpStatus.NOT_ACCEPTABLE);
+         }
+    }
+
+    /**
+     * Answers a failed remote dish check: only a 404 of the Food Service means the dish
+     * doesn't exist, any other failure is the Food Service's, not the order's.
+     */
+    private static ResponseEntity<?> dishCheckFailure(Throwable cause) {
+    	if (cause instanceof HttpClientErrorException.NotFound) {
+    		return new ResponseEntity<>(new ErrorResponse("Dish not found", 404), HttpStatus.NOT_FOUND);
+    	}
+    	if (cause instanceof ResourceAccessException && cause.getCause() instanceof SocketTimeoutException) {
+    		return new ResponseEntity<>(new ErrorResponse("Order validation timed out", 504), HttpStatus.GATEWAY_TIMEOUT);
+    	}
+    	// Connection refused, no instance registered, 5xx...
+    	return new ResponseEntity<>(new ErrorResponse("Food Service unavailable", 503), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Checks with the Food Service that a dish exists and adds it to the menu replica.
+     * 
+     * @param dishId - The ID of the dish to check.
+     * @return DishBean - The dish returned by the Food Service.
+     */
+    private DishBean checkDishRemotely(Integer dishId) {
+    	// URI template, so that the calls of every dish share the same uri tag in http.client.requests
+    	ResponseEntity<DishBean> response = restTemplate.getForEntity(foodServiceUrl + "/dish/{dishId}", DishBean.class, dishId);
+    	menuReplicaService.register(response.getBody());
+    	logger.info("Dish with id {} is valid. Response from service: {}", dishId, response.getBody());
+    	return response.getBody();
+    }
+
+    /**
+     * Runs a phase of addOrder and records its time in order.add.phase.
+     * A null result is recorded as not_found, an exception as error.
+     */
+    private <T> T timePhase(String phase, String target, Callable<T> call) throws Exception {
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	String outcome = "error";
+    	try {
+    		T result = call.call();
+    		outcome = result == null ? "not_found" : "success";
+    		return result;
+    	} finally {
+    		sample.stop(phaseTimer(phase, target, outcome));
+    	}
+    }
+
+    private Timer phaseTimer(String phase, String target, String outcome) {
+    	return meterRegistry.timer("order.add.phase", "phase", phase, "target", target, "outcome", outcome);
+    }
+
+    private Timer operationTimer(String operation, String outcome) {
+    	return meterRegistry.timer("order.operation", "operation", operation, "outcome", outcome);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+    	if (status.is2xxSuccessful()) {
+    		return "success";
+    	}
+    	if (status.value() == HttpStatus.NOT_FOUND.value()) {
+    		return "not_found";
+    	}
+    	return status.is4xxClientError() ? "rejected" : "error";
+    }
+
+    /**
+     * Cancels a validation that is no longer needed. A running one is not interrupted: it may be
+     * inside an HTTP or JDBC call, and its result is simply ignored.
+     */
+    private static void cancel(Future<?> validation) {
+    	if (validation != null) {
+    		validation.cancel(false);
+    	}
     }
    
     /**
-     * Remove an order from the system by order ID.
+     * Add a batch of orders in a single transaction.
+     * 
+     * Every distinct dish is validated once (against the menu replica, then with one batch
+     * lookup on the Food Service for the dishes it doesn't know) and every distinct customer
+     * is checked with a single query. The valid orders are inserted with JDBC batch statements.
+     * Invalid orders don't prevent the others from being placed.
+     * 
+     * @param orderBeans - The orders to be placed.
+     * @return List<OrderBatchResultBean> - One result per order, in the order they were submitted.
+     * @throws IllegalArgumentException - If the batch holds more than order.batch.max-size orders.
+     * @throws RestClientException - If the Food Service can't validate the dishes unknown to the replica.
+     */
+    public List<OrderBatchResultBean> addOrders(List<OrderBean> orderBeans) {
+    	logger.info("Placing a batch of {} orders", orderBeans.size());
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	String outcome = "error";
+    	try {
+    		if (orderBeans.size() > batchMaxSize) {
+    			outcome = "rejected";
+    			throw new IllegalArgumentException("A batch can hold at most " + batchMaxSize + " orders");
+    		}
+    		OrderBatchResultBean[] results = new OrderBatchResultBean[orderBeans.size()];
+
+    		// Bean validation of each order, the invalid ones are left out of the lookups.
+    		Set<Integer> dishIds = new LinkedHashSet<>();
+    		Set<Integer> customerIds = new LinkedHashSet<>();
+    		for (int i = 0; i < orderBeans.size(); i++) {
+    			OrderBean orderBean = orderBeans.get(i);
+    			Set<ConstraintViolation<OrderBean>> violations = orderBean == null ? Set.of() : validator.validate(orderBean);
+    			if (orderBean == null || !violations.isEmpty()) {
+    				String msg = orderBean == null ? "Order is required" : violations.stream()
+    						.map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", "));
+    				results[i] = new OrderBatchResultBean(i, 400, null, msg);
+    				continue;
+    			}
+    			dishIds.add(orderBean.getDishId());
+    			customerIds.add(orderBean.getCustomerId());
+    		}
+
+    		Map<Integer, Integer> validDishes = findValidDishes(dishIds); // dishId -> unit price
+    		Set<Integer> validCustomerIds = customerService.findExistingIds(customerIds);
+    		logger.info("Batch references {} dishes ({} valid) and {} customers ({} valid)", dishIds.size(),
+    				validDishes.size(), customerIds.size(), validCustomerIds.size());
+
+    		List<Orders> toInsert = new ArrayList<>();
+    		List<Integer> toInsertIndexes = new ArrayList<>();
+    		LocalDateTime now = LocalDateTime.now();
+    		for (int i = 0; i < orderBeans.size(); i++) {
+    			if (results[i] != null) {
+    				continue;
+    			}
+    			OrderBean orderBean = orderBeans.get(i);
+    			if (!validDishes.containsKey(orderBean.getDishId())) {
+    				results[i] = new OrderBatchResultBean(i, 404, null, "Dish not found");
+    			} else if (!validCustomerIds.contains(orderBean.getCustomerId())) {
+    				results[i] = new OrderBatchResultBean(i, 404, null, "Customer not found");
+    			} else {
+    				Customer customer = new Customer();
+    				customer.setCustomerId(orderBean.getCustomerId());
+    				Orders order = new Orders();
+    				order.setDishId(orderBean.getDishId());
+    				order.setQuantity(orderBean.getQuantity());
+    				order.priceAt(validDishes.get(orderBean.getDishId()));
+    				order.setCustomer(customer);
+    				order.setOrdertime(now);
+    				order.setStatus(1);
+    				toInsert.add(order);
+    				toInsertIndexes.add(i);
+    			}
+    		}
+
+    		orderBatchRepository.insertAll(toInsert);
+    		List<OrderEvent> events = new ArrayList<>(toInsert.size());
+    		List<KitchenOrderBean> kitchenOrders = new ArrayList<>(toInsert.size());
+    		for (int j = 0; j < toInsert.size(); j++) {
+    			Orders savedOrder = toInsert.get(j);
+    			events.add(createdEvent(savedOrder, savedOrder.getCustomer().getCustomerId()));
+    			kitchenOrders.add(toKitchenOrder(savedOrder, savedOrder.getCustomer().getCustomerId()));
+    			OrderReturnBean obean = toReturnBean(savedOrder, savedOrder.getCustomer().getCustomerId());
+    			results[toInsertIndexes.get(j)] = new OrderBatchResultBean(toInsertIndexes.get(j), 201, obean, null);
+    		}
+    		outboxRepository.append(events);
+    		kitchenBoardService.ordersPlaced(kitchenOrders);
+    		readYourWritesGuard.recordWrites(kitchenOrders.stream().map(KitchenOrderBean::getCustomerId).collect(Collectors.toSet()));
+    		logger.info("Batch placed: {} orders created, {} rejected", toInsert.size(), orderBeans.size() - toInsert.size());
+    		outcome = "success";
+    		return List.of(results);
+    	} finally {
+    		sample.stop(operationTimer("add_batch", outcome));
+    	}
+    }
+
+    /**
+     * Validates a set of dishes, using the menu replica and one Food Service batch lookup
+     * per menu.batch.max-ids dishes unknown to the replica.
+     * 
+     * @param dishIds - The distinct dish IDs to validate.
+     * @return Map<Integer, Integer> - The unit price of each dish that exists, keyed by dish ID.
+     */
+    private Map<Integer, Integer> findValidDishes(Set<Integer> dishIds) {
+    	Map<Integer, Integer> valid = new LinkedHashMap<>();
+    	List<Integer> unknown = new ArrayList<>();
+    	for (Integer dishId : dishIds) {
+    		Integer unitPrice = menuReplicaService.getUnitPrice(dishId);
+    		if (unitPrice != null) {
+    			valid.put(dishId, unitPrice);
+    		} else {
+    			unknown.add(dishId);
+    		}
+    	}
+    	for (int from = 0; from < unknown.size(); from += dishBatchMaxIds) {
+    		List<Integer> chunk = unknown.subList(from, Math.min(from + dishBatchMaxIds, unknown.size()));
+    		// A Food Service failure (RestClientException) fails the batch, as it fails a single
+    		// order: its dishes are not reported as unknown
+    		DishBatchBean batch = restTemplate.postForObject(foodServiceUrl + "/dish/batch", chunk, DishBatchBean.class);
+    		if (batch != null && batch.getDishes() != null) {
+    			batch.getDishes().values().forEach(dish -> {
+    				menuReplicaService.register(dish);
+    				valid.put(dish.getDishId(), dish.getUnitPrice());
+    			});
+    		}
+    	}
+    	return valid;
+    }
+
+    /**
+     * Cancel an order by order ID, i.e. set its status to 0, if it was placed less than
+     * 10 minutes ago.
+     * 
+     * The cancellation is a single conditional UPDATE, so the time check and the change can't
+     * be separated by a concurrent update. The order is then read back as an OrderView to
+     * build the response.
+     * 
+     * As before the conditional UPDATE, the time check comes first: an order placed 10 minutes
+     * ago or more is rejected even if it is already cancelled, and cancelling an order that is
+     * already cancelled within the window returns it unchanged.
      * 
-     * @param id - The ID of the order to be removed.
-     * @return Integer - The ID of the deleted order.
+     * @param id - The ID of the order to be cancelled.
+     * @return OrderReturnBean - The cancelled order.
+     * @throws TimeException - If the order was placed 10 minutes ago or more.
+     * @throws MenuException - If there is no order with this ID.
      */
-    public OrderReturnBean removeOrder(Integer id) throws  TimeException{
+    public OrderReturnBean removeOrder(Integer id) throws TimeException, MenuException {
     	logger.info("Removing order with id: {}", id);
-    	
-    	Orders order1= orderRepository.findByOrderId(id);
-		if(TimeDifferenceChecker.isDifference10Minutes(order1.getOrdertime(),LocalDateTime.now())){
-			order1.setStatus(0);
-		}else{
-			throw new TimeException("Order can't be cancelled 10min after placing");
-		}
-
-    	orderRepository.save(order1);
-    	Orders order2=orderRepository.findByOrderId(id);
-        //orderRepository.deleteByOrderId(id);// Delete the order from the repository based on the order ID.
-    	OrderReturnBean orb=new OrderReturnBean();
-    	orb.setCustomerId(order2.getCustomer().getCustomerId());
-    	orb.setDishId(order2.getDishId());
-    	orb.setOrderId(order2.getOrderId());
-    	orb.setQuantity(order2.getQuantity());
-    	orb.setStatus(order2.getStatus());
-    	logger.info("Order {} cancelled successfully",orb);
-        return orb; // Return the ID of the deleted order.
-        
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	String outcome = "error";
+    	try {
+    		// Check and cancel in one conditional update: no window for a concurrent change between the two
+    		LocalDateTime cutoff = LocalDateTime.now().minusMinutes(CANCELLATION_WINDOW_MINUTES);
+    		int cancelled = orderRepository.cancelIfPlacedAfter(id, cutoff);
+    		// Read back only the columns of the response, not the order and customer entities
+    		OrderView order = orderRepository.findViewByOrderId(id);
+    		if (order == null) {
+    			outcome = "not_found";
+    			throw new MenuException("Order not found");
+    		}
+    		if (cancelled == 0 && !order.getOrdertime().isAfter(cutoff)) {
+    			outcome = "rejected";
+    			throw new TimeException("Order can't be cancelled 10min after placing");
+    		}
+    		if (cancelled == 1) {
+    			outboxRepository.append(List.of(new OrderEvent(null, OrderEventType.ORDER_CANCELLED, order.getOrderId(),
+    					order.getDishId(), order.getCustomerId(), order.getQuantity(), order.getStatus(),
+    					order.getOrdertime(), LocalDateTime.now())));
+    			kitchenBoardService.orderCancelled(order.getOrderId());
+    			readYourWritesGuard.recordWrite(order.getCustomerId());
+    		}
+    		// Cancelling an order that is already cancelled returns it unchanged, as before
+    		OrderReturnBean orb=toReturnBean(order);
+    		logger.info("Order {} cancelled successfully",orb);
+    		outcome = "success";
+    		return orb; // Return the cancelled order.
+    	} finally {
+    		sample.stop(operationTimer("remove", outcome));
+    	}
     }
     
     /**
-     * Get all orders for a specific customer.
+     * Get one page of the orders of a customer, most recent first.
      * 
-     * @param customer - The customer whose orders are to be fetched.
-     * @return List<Orders> - The list of orders for the customer.
+     * Uses keyset pagination on (ordertime, orderId): the cursor holds the position of the last
+     * order of the previous page, so every page costs one index range scan whatever its depth.
+     * 
+     * @param customerId - The customer whose orders are to be fetched.
+     * @param cursor - The nextCursor of the previous page, or null for the first page.
+     * @param size - The page size, or null for order.history.page-size.
+     * @param status - Only orders with this status, or null for every order.
+     * @param from - Only orders placed at or after this time, or null.
+     * @param to - Only orders placed before this time, or null.
+     * @return OrderPageBean - The orders of the page and the cursor of the next page.
+     * @throws IllegalArgumentException - If the cursor is malformed or the size isn't positive.
      */
-    public List<Orders> getOrdersByCustomer(Customer customer) {
-    	logger.info("Fetching all orders for customer: {}", customer.getCustomerId());
-    	List<Orders> orders =orderRepository.findByCustomer(customer);// Fetch orders from the repository.
-    	logger.info("Found {} orders for customer: {}", orders.size(), customer.getCustomerId());
-        return orders;
+    @Transactional(readOnly = true)
+    public OrderPageBean getOrdersByCustomer(Integer customerId, String cursor, Integer size, Integer status,
+    		LocalDateTime from, LocalDateTime to) {
+    	int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+    	if (pageSize <= 0) {
+    		throw new IllegalArgumentException("Page size must be positive");
+    	}
+    	OrderCursor position = OrderCursor.decode(cursor);
+    	logger.info("Fetching {} orders for customer: {}", pageSize, customerId);
+    	// One extra order tells whether there is a next page.
+    	List<OrderView> orders = readYourWritesGuard.read(customerId, () -> orderRepository.findPageByCustomer(customerId,
+    			position.getOrdertime(), position.getOrderId(), status, from, to, PageRequest.ofSize(pageSize + 1)));
+    	boolean hasNext = orders.size() > pageSize;
+    	if (hasNext) {
+    		orders = orders.subList(0, pageSize);
+    	}
+    	List<OrderReturnBean> page = orders.stream().map(OrderService::toReturnBean).collect(Collectors.toList());
+    	String nextCursor = null;
+    	if (hasNext) {
+    		OrderView last = orders.get(orders.size() - 1);
+    		nextCursor = new OrderCursor(last.getOrdertime(), last.getOrderId()).encode();
+    	}
+    	logger.info("Found {} orders for customer: {}, more pages: {}", page.size(), customerId, hasNext);
+        return new OrderPageBean(page, nextCursor);
+    }
+
+    private static OrderEvent createdEvent(Orders order, Integer customerId) {
+    	return new OrderEvent(null, OrderEventType.ORDER_CREATED, order.getOrderId(), order.getDishId(), customerId,
+    			order.getQuantity(), order.getStatus(), order.getOrdertime(), order.getOrdertime());
+    }
+
+    private static KitchenOrderBean toKitchenOrder(Orders order, Integer customerId) {
+    	return new KitchenOrderBean(order.getOrderId(), order.getDishId(), customerId, order.getQuantity(), order.getOrdertime());
+    }
+
+    private static OrderReturnBean toReturnBean(OrderView order) {
+    	OrderReturnBean obean = new OrderReturnBean();
+    	obean.setOrderId(order.getOrderId());
+    	obean.setDishId(order.getDishId());
+    	obean.setCustomerId(order.getCustomerId());
+    	obean.setStatus(order.getStatus());
+    	obean.setQuantity(order.getQuantity());
+    	obean.setUnitPrice(order.getUnitPrice());
+    	obean.setLineTotal(order.getLineTotal());
+    	return obean;
+    }
+
+    private static OrderReturnBean toReturnBean(Orders order, Integer customerId) {
+    	OrderReturnBean obean = new OrderReturnBean();
+    	obean.setOrderId(order.getOrderId());
+    	obean.setDishId(order.getDishId());
+    	obean.setCustomerId(customerId);
+    	obean.setStatus(order.getStatus());
+    	obean.setQuantity(order.getQuantity());
+    	obean.setUnitPrice(order.getUnitPrice());
+    	obean.setLineTotal(order.getLineTotal());
+    	return obean;
     }
-}
\ No newline at end of file
+}
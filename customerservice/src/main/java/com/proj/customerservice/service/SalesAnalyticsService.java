@@ -0,0 +1,374 @@
+package com.proj.customerservice.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.customerservice.beans.CancellationRateBean;
+import com.proj.customerservice.beans.CustomerSalesBean;
+import com.proj.customerservice.beans.DishSalesBean;
+import com.proj.customerservice.beans.OrderRateBean;
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.event.OrderEventSubscriber;
+import com.proj.customerservice.event.OrderEventType;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sales analytics of the last analytics.window-minutes minutes (top dishes, orders per minute,
+ * cancellation rate, orders of a customer), maintained in memory from the order events instead
+ * of being computed from the orders table.
+ *
+ * The window is a ring of one bucket per minute. Each bucket counts the orders placed (and
+ * their quantity) and cancelled during its minute, in total, per dish and per customer, with
+ * LongAdders. The quantity of a cancelled order is taken back from the bucket of the minute it
+ * was placed, so the quantities only count the portions still ordered; the orders placed keep
+ * counting it, the cancellation rate being cancelled / placed. An event is counted in the
+ * bucket of the minute it occurred; when the ring comes back to a bucket for a new minute, the
+ * bucket of the old minute is replaced. A query reads at most one bucket per minute of its
+ * window, so its cost depends on the window and on the number of dishes or customers active in
+ * it, not on the size of the orders table.
+ *
+ * The counters are fed as an OrderEventSubscriber, i.e. by the order outbox, off the request
+ * threads of addOrder, addOrders and removeOrder. Each bucket remembers the IDs of the events
+ * it counted, so an event delivered again is not counted twice, and of the orders placed, so a
+ * quantity is only taken back once and from the bucket that counted it. With several
+ * instances, each instance counts the events its own dispatcher delivers: the answers are
+ * partial, AnalyticsController marks them with the ID of the instance.
+ *
+ * The buckets are written to the JSON file analytics.checkpoint.path every
+ * analytics.checkpoint-interval ms and at shutdown, and read back at startup: a restart keeps
+ * the window, apart from the events delivered since the last checkpoint.
+ */
+@Service
+public class SalesAnalyticsService implements OrderEventSubscriber {
+
+    @Autowired
+    ObjectMapper objectMapper; // Writes and reads the checkpoints
+
+    @Value("${analytics.window-minutes:60}")
+    int windowMinutes; // Minutes kept in memory, i.e. longest window of a query
+    @Value("${analytics.checkpoint.path:analytics/checkpoint.json}")
+    String checkpointPath; // File the buckets are checkpointed to
+
+    Clock clock = Clock.systemDefaultZone(); // Source of the current minute, and time zone of the order times
+
+    Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    /**
+     * Orders placed and cancelled, and the quantity of those placed.
+     */
+    static final class Counts {
+        final LongAdder placed = new LongAdder();
+        final LongAdder quantity = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+
+        CountsState state() {
+            return new CountsState(placed.sum(), quantity.sum(), cancelled.sum());
+        }
+
+        static Counts of(CountsState state) {
+            Counts counts = new Counts();
+            counts.placed.add(state.placed());
+            counts.quantity.add(state.quantity());
+            counts.cancelled.add(state.cancelled());
+            return counts;
+        }
+    }
+
+    /**
+     * The counters of one minute.
+     */
+    static final class Bucket {
+        final long minute; // Minutes since the epoch
+        final Counts total = new Counts();
+        final Map<Integer, Counts> dishes = new ConcurrentHashMap<>();
+        final Map<Integer, Counts> customers = new ConcurrentHashMap<>();
+        final Set<Long> eventIds = ConcurrentHashMap.newKeySet(); // Events counted
+        final Set<Integer> orderIds = ConcurrentHashMap.newKeySet(); // Orders placed, not cancelled yet
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    record CountsState(long placed, long quantity, long cancelled) {
+    }
+
+    record BucketState(long minute, CountsState total, Map<Integer, CountsState> dishes,
+            Map<Integer, CountsState> customers, Set<Long> eventIds, Set<Integer> orderIds) {
+    }
+
+    record Checkpoint(List<BucketState> buckets) {
+    }
+
+    private AtomicReferenceArray<Bucket> buckets;
+
+    @PostConstruct
+    void init() {
+        buckets = new AtomicReferenceArray<>(windowMinutes);
+        restore();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkpoint();
+    }
+
+    @Override
+    public void onEvents(List<OrderEvent> events) {
+        events.forEach(this::apply);
+    }
+
+    /**
+     * @param minutes length of the window, from 1 to analytics.window-minutes
+     * @param limit   maximum number of dishes returned
+     * @return the dishes ordered the most over the last minutes, by quantity
+     */
+    public List<DishSalesBean> topDishes(int minutes, int limit) {
+        Map<Integer, long[]> dishes = new HashMap<>();
+        for (Bucket bucket : recent(minutes)) {
+            bucket.dishes.forEach((dishId, counts) -> {
+                long[] sum = dishes.computeIfAbsent(dishId, id -> new long[3]);
+                sum[0] += counts.placed.sum();
+                sum[1] += counts.quantity.sum();
+                sum[2] += counts.cancelled.sum();
+            });
+        }
+        return dishes.entrySet().stream()
+                .filter(dish -> dish.getValue()[0] > 0)
+                .map(dish -> new DishSalesBean(dish.getKey(), dish.getValue()[0], dish.getValue()[1], dish.getValue()[2]))
+                .sorted(Comparator.comparingLong(DishSalesBean::getQuantity).reversed()
+                        .thenComparing(Comparator.comparingLong(DishSalesBean::getOrders).reversed())
+                        .thenComparing(DishSalesBean::getDishId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @param minutes length of the window, from 1 to analytics.window-minutes
+     * @return the orders placed and cancelled in each of the last minutes, oldest first, the
+     *         current minute included
+     */
+    public List<OrderRateBean> ordersPerMinute(int minutes) {
+        long now = currentMinute();
+        List<OrderRateBean> rates = new ArrayList<>(minutes);
+        for (long minute = now - checkWindow(minutes) + 1; minute <= now; minute++) {
+            Bucket bucket = bucket(minute);
+            rates.add(new OrderRateBean(toTime(minute), bucket == null ? 0 : bucket.total.placed.sum(),
+                    bucket == null ? 0 : bucket.total.cancelled.sum()));
+        }
+        return rates;
+    }
+
+    /**
+     * @param minutes length of the window, from 1 to analytics.window-minutes
+     * @return the orders placed and cancelled over the last minutes
+     */
+    public CancellationRateBean cancellationRate(int minutes) {
+        long placed = 0;
+        long cancelled = 0;
+        for (Bucket bucket : recent(minutes)) {
+            placed += bucket.total.placed.sum();
+            cancelled += bucket.total.cancelled.sum();
+        }
+        return new CancellationRateBean(minutes, placed, cancelled, placed == 0 ? 0 : (double) cancelled / placed);
+    }
+
+    /**
+     * @param minutes length of the window, from 1 to analytics.window-minutes
+     * @return the orders of the customer over the last minutes
+     */
+    public CustomerSalesBean customerSales(Integer customerId, int minutes) {
+        long placed = 0;
+        long quantity = 0;
+        long cancelled = 0;
+        for (Bucket bucket : recent(minutes)) {
+            Counts counts = bucket.customers.get(customerId);
+            if (counts != null) {
+                placed += counts.placed.sum();
+                quantity += counts.quantity.sum();
+                cancelled += counts.cancelled.sum();
+            }
+        }
+        return new CustomerSalesBean(customerId, minutes, placed, quantity, cancelled);
+    }
+
+    /**
+     * Writes the buckets of the window to the checkpoint file, replacing the previous one.
+     */
+    @Scheduled(initialDelayString = "${analytics.checkpoint-interval:60000}", fixedDelayString = "${analytics.checkpoint-interval:60000}")
+    public void checkpoint() {
+        List<BucketState> states = new ArrayList<>();
+        for (Bucket bucket : recent(windowMinutes)) {
+            Map<Integer, CountsState> dishes = new HashMap<>();
+            bucket.dishes.forEach((dishId, counts) -> dishes.put(dishId, counts.state()));
+            Map<Integer, CountsState> customers = new HashMap<>();
+            bucket.customers.forEach((customerId, counts) -> customers.put(customerId, counts.state()));
+            states.add(new BucketState(bucket.minute, bucket.total.state(), dishes, customers, Set.copyOf(bucket.eventIds),
+                    Set.copyOf(bucket.orderIds)));
+        }
+        Path path = Paths.get(checkpointPath);
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Written aside then moved over the previous checkpoint: a crash never leaves half a file
+            Path temporary = Files.createTempFile(directory, "analytics", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), new Checkpoint(states));
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Sales analytics checkpointed: {} minutes", states.size());
+        } catch (IOException e) {
+            logger.error("Could not checkpoint the sales analytics to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the buckets of the checkpoint file still in the window.
+     */
+    void restore() {
+        Path path = Paths.get(checkpointPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            Checkpoint checkpoint = objectMapper.readValue(path.toFile(), Checkpoint.class);
+            int restored = 0;
+            long oldest = currentMinute() - windowMinutes + 1;
+            for (BucketState state : checkpoint.buckets()) {
+                if (state.minute() < oldest) {
+                    continue;
+                }
+                Bucket bucket = new Bucket(state.minute());
+                bucket.total.placed.add(state.total().placed());
+                bucket.total.quantity.add(state.total().quantity());
+                bucket.total.cancelled.add(state.total().cancelled());
+                state.dishes().forEach((dishId, counts) -> bucket.dishes.put(dishId, Counts.of(counts)));
+                state.customers().forEach((customerId, counts) -> bucket.customers.put(customerId, Counts.of(counts)));
+                bucket.eventIds.addAll(state.eventIds());
+                if (state.orderIds() != null) { // Absent from the checkpoints of older versions
+                    bucket.orderIds.addAll(state.orderIds());
+                }
+                buckets.set(index(state.minute()), bucket);
+                restored++;
+            }
+            logger.info("Sales analytics restored from {}: {} minutes", path, restored);
+        } catch (IOException e) {
+            logger.error("Could not restore the sales analytics from {}, starting empty: {}", path, e.getMessage());
+        }
+    }
+
+    private void apply(OrderEvent event) {
+        LocalDateTime occurredAt = event.getOccurredAt() != null ? event.getOccurredAt() : event.getOrdertime();
+        Bucket bucket = bucketForUpdate(minuteOf(occurredAt));
+        if (bucket == null || (event.getEventId() != null && !bucket.eventIds.add(event.getEventId()))) {
+            return; // Older than the window, or already counted
+        }
+        long quantity = event.getQuantity() == null ? 0 : event.getQuantity();
+        for (Counts counts : targets(bucket, event)) {
+            if (event.getType() == OrderEventType.ORDER_CREATED) {
+                counts.placed.increment();
+                counts.quantity.add(quantity);
+            } else {
+                counts.cancelled.increment();
+            }
+        }
+        if (event.getType() == OrderEventType.ORDER_CREATED) {
+            bucket.orderIds.add(event.getOrderId());
+        } else if (event.getOrdertime() != null) {
+            // Taken back from the minute the order was placed, if this instance counted it there
+            Bucket placedIn = bucket(minuteOf(event.getOrdertime()));
+            if (placedIn != null && placedIn.orderIds.remove(event.getOrderId())) {
+                targets(placedIn, event).forEach(counts -> counts.quantity.add(-quantity));
+            }
+        }
+    }
+
+    private static List<Counts> targets(Bucket bucket, OrderEvent event) {
+        return List.of(bucket.total,
+                bucket.dishes.computeIfAbsent(event.getDishId(), id -> new Counts()),
+                bucket.customers.computeIfAbsent(event.getCustomerId(), id -> new Counts()));
+    }
+
+    // A time ahead of the clock (another instance's clock) counts in the current minute
+    private long minuteOf(LocalDateTime time) {
+        return Math.min(time.atZone(clock.getZone()).toEpochSecond() / 60, currentMinute());
+    }
+
+    // The bucket of the minute, replacing the bucket of an older minute; null if the minute left the window
+    private Bucket bucketForUpdate(long minute) {
+        if (minute <= currentMinute() - windowMinutes) {
+            return null;
+        }
+        int index = index(minute);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.minute >= minute) {
+                return bucket.minute == minute ? bucket : null;
+            }
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    // The bucket of the minute, null if nothing happened during it
+    private Bucket bucket(long minute) {
+        Bucket bucket = buckets.get(index(minute));
+        return bucket != null && bucket.minute == minute ? bucket : null;
+    }
+
+    private List<Bucket> recent(int minutes) {
+        long now = currentMinute();
+        List<Bucket> recent = new ArrayList<>(minutes);
+        for (long minute = now - checkWindow(minutes) + 1; minute <= now; minute++) {
+            Bucket bucket = bucket(minute);
+            if (bucket != null) {
+                recent.add(bucket);
+            }
+        }
+        return recent;
+    }
+
+    private int checkWindow(int minutes) {
+        if (minutes < 1 || minutes > windowMinutes) {
+            throw new IllegalArgumentException("minutes must be between 1 and " + windowMinutes);
+        }
+        return minutes;
+    }
+
+    private int index(long minute) {
+        return (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), 60_000L);
+    }
+
+    private LocalDateTime toTime(long minute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(minute * 60), clock.getZone());
+    }
+}
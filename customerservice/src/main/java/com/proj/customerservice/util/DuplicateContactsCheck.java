@@ -0,0 +1,96 @@
+package com.proj.customerservice.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-check of the V3 migration, which adds the unique constraints on the email and the phone
+ * number of the customers: on a database where customers already share an email or a phone
+ * number, the constraints can't be created and the service wouldn't start. Before V3 runs, this
+ * callback looks for such duplicates and, if there are any, stops the migration with the
+ * duplicated values and the query that lists the customers concerned, so that they can be
+ * merged (or their contact details corrected) before the service is started again.
+ *
+ * The duplicates are counted the way the constraints compare the values, i.e. with the collation
+ * of the columns (ignoring case on MySQL).
+ */
+@Component
+public class DuplicateContactsCheck implements Callback {
+
+    static final String UNIQUE_CONTACTS_VERSION = "3";
+    private static final int MAX_REPORTED = 10;
+
+    static final String FIND_DUPLICATES_QUERY = "SELECT c.customerId, c.email, c.phoneNumber FROM Customer c"
+            + " WHERE c.email IN (SELECT email FROM Customer GROUP BY email HAVING COUNT(*) > 1)"
+            + " OR c.phoneNumber IN (SELECT phoneNumber FROM Customer GROUP BY phoneNumber HAVING COUNT(*) > 1)"
+            + " ORDER BY c.email, c.phoneNumber, c.customerId";
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        if (event != Event.BEFORE_EACH_MIGRATE) {
+            return false;
+        }
+        MigrationInfo migration = context.getMigrationInfo();
+        return migration != null && migration.getVersion() != null
+                && UNIQUE_CONTACTS_VERSION.equals(migration.getVersion().getVersion());
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try {
+            Duplicates emails = duplicates(context.getConnection(), "email");
+            Duplicates phoneNumbers = duplicates(context.getConnection(), "phoneNumber");
+            if (emails.count() > 0 || phoneNumbers.count() > 0) {
+                throw new FlywayException("Customers share " + emails.count() + " emails " + emails.values() + " and "
+                        + phoneNumbers.count() + " phone numbers " + phoneNumbers.values() + " (at most " + MAX_REPORTED
+                        + " of each listed), so the unique constraints of V3 can't be added. Merge or correct these"
+                        + " customers, listed by: " + FIND_DUPLICATES_QUERY);
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Could not look for duplicate customer contacts before V3", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * @param count  the number of values shared by several customers
+     * @param values the first of them
+     */
+    record Duplicates(int count, List<String> values) {
+    }
+
+    private static Duplicates duplicates(Connection connection, String column) throws SQLException {
+        int count = 0;
+        List<String> values = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT " + column + " FROM Customer GROUP BY " + column
+                        + " HAVING COUNT(*) > 1")) {
+            while (rs.next()) {
+                if (count++ < MAX_REPORTED) {
+                    values.add(rs.getString(1));
+                }
+            }
+        }
+        return new Duplicates(count, values);
+    }
+}
@@ -0,0 +1,76 @@
+package com.proj.customerservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback turbo filter that keeps only one in every rate INFO and DEBUG messages of the
+ * configured loggers, e.g. the success paths logged on every request. WARN and ERROR
+ * messages always pass, and so do the messages of the other loggers.
+ *
+ * Each call site (logger and message format) is sampled on its own: a logger writing two
+ * messages per request with a rate of 2 keeps one in two of each, not every first and never
+ * the second. A configured name also covers the loggers below it
+ * (com.proj.customerservice.controller covers every controller). Being a turbo filter, it runs
+ * before the logging event is created, so a dropped message costs neither formatting nor
+ * allocation. Configured in logback-spring.xml:
+ *
+ *   <turboFilter class="com.proj.customerservice.util.LogSamplingFilter">
+ *     <logger>com.proj.customerservice.controller</logger>
+ *     <rate>10</rate>
+ *   </turboFilter>
+ *
+ * The food and customer services have no module in common: this class and logback-spring.xml
+ * are copied in both and must be kept identical, apart from the package and the sampled loggers.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+	private final List<String> loggers = new ArrayList<>();
+	private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> counters = new ConcurrentHashMap<>(); // logger name -> format -> messages seen
+	private int rate = 1;
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+		// format is null when only the level is checked (isInfoEnabled...): not a message to count
+		if (format == null || level.isGreaterOrEqual(Level.WARN) || rate <= 1 || !isSampled(logger.getName())) {
+			return FilterReply.NEUTRAL;
+		}
+		long seen = counters.computeIfAbsent(logger.getName(), name -> new ConcurrentHashMap<>())
+				.computeIfAbsent(format, callSite -> new AtomicLong())
+				.getAndIncrement();
+		return seen % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+	}
+
+	private boolean isSampled(String loggerName) {
+		for (String sampled : loggers) {
+			if (loggerName.equals(sampled) || loggerName.startsWith(sampled + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param logger name of a logger (or parent logger) to sample, may be given several times
+	 */
+	public void addLogger(String logger) {
+		loggers.add(logger.trim());
+	}
+
+	/**
+	 * @param rate one message in every rate is kept, 1 keeps them all
+	 */
+	public void setRate(int rate) {
+		this.rate = rate;
+	}
+}
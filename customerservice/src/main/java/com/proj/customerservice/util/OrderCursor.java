@@ -0,0 +1,61 @@
+package com.proj.customerservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * OrderCursor is the position of an order in a customer's order history, which is sorted
+ * by ordertime and then orderId, both descending. It is handed to clients as an opaque
+ * token (nextCursor) and sent back to get the page of orders that comes after it.
+ */
+public class OrderCursor {
+
+    /**
+     * Cursor of the first page: after every order that can be stored.
+     */
+    public static final OrderCursor FIRST = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Integer.MAX_VALUE);
+
+    private final LocalDateTime ordertime;
+    private final Integer orderId;
+
+    public OrderCursor(LocalDateTime ordertime, Integer orderId) {
+        this.ordertime = ordertime;
+        this.orderId = orderId;
+    }
+
+    /**
+     * @return the token to send to the client
+     */
+    public String encode() {
+        String raw = ordertime + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token a token produced by encode(), or null for the first page
+     * @return the cursor represented by the token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getOrdertime() {
+        return ordertime;
+    }
+
+    public Integer getOrderId() {
+        return orderId;
+    }
+}
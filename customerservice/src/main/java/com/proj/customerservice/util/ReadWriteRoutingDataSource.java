@@ -0,0 +1,81 @@
+package com.proj.customerservice.util;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource that sends the connections of read-only transactions
+ * (@Transactional(readOnly = true)) to the replica pool and every other connection to the
+ * primary pool.
+ *
+ * The role is chosen when the connection is obtained, so this DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy: the transaction manager then gets a proxy at the start of the
+ * transaction, and the physical connection is only obtained at the first statement, once the
+ * transaction is known to be read-only (see DataSourceConfig).
+ *
+ * onPrimary forces the primary for the reads of the current thread, e.g. to read back a
+ * customer's own recent writes while the replica may still lag behind (see ReadYourWritesGuard).
+ * It only applies to connections not obtained yet, i.e. it must enclose the first statement of
+ * the transaction.
+ *
+ * The connections obtained are counted as datasource.routing, tagged with role=primary|replica.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Role {
+        PRIMARY, REPLICA
+    }
+
+    // Set while the reads of the current thread must go to the primary
+    private static final ThreadLocal<Boolean> primaryForced = new ThreadLocal<>();
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        primaryConnections = meterRegistry.counter("datasource.routing", "role", "primary");
+        replicaConnections = meterRegistry.counter("datasource.routing", "role", "replica");
+    }
+
+    /**
+     * Runs reader with the reads of the current thread sent to the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> reader) {
+        Boolean previous = primaryForced.get();
+        primaryForced.set(Boolean.TRUE);
+        try {
+            return reader.get();
+        } finally {
+            if (previous == null) {
+                primaryForced.remove();
+            } else {
+                primaryForced.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the role of the pool the next connection of the current thread comes from
+     */
+    public static Role currentRole() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && primaryForced.get() == null
+                ? Role.REPLICA : Role.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Role role = currentRole();
+        (role == Role.REPLICA ? replicaConnections : primaryConnections).increment();
+        return role;
+    }
+}
@@ -0,0 +1,93 @@
+package com.proj.customerservice.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-your-writes guard for the read replica: a customer who has just registered, placed or
+ * cancelled an order reads from the primary for datasource.replica.max-lag ms, so that the
+ * customer lookup of their next order or their order history doesn't miss a change the
+ * replica hasn't applied yet. The reads of the other customers still go to the replica.
+ *
+ * The time of the last write of each customer is kept in memory, from the commit of the
+ * transaction; entries older than the lag are purged every datasource.replica.purge-interval
+ * ms. A max-lag of 0 disables the guard.
+ *
+ * Reads sent to the primary by the guard are counted as datasource.replica.bypassed.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    @Autowired
+    MeterRegistry meterRegistry; // Registry of the bypass counter
+
+    @Value("${datasource.replica.max-lag:2000}")
+    long maxLag; // ms after a write during which the customer reads from the primary
+
+    private final Map<Integer, Long> lastWrites = new ConcurrentHashMap<>(); // customerId -> ms
+
+    /**
+     * Records a write of the customer, when the current transaction commits (immediately
+     * outside a transaction).
+     */
+    public void recordWrite(Integer customerId) {
+        if (customerId != null) {
+            recordWrites(List.of(customerId));
+        }
+    }
+
+    /**
+     * Records a write of each of the customers, as recordWrite.
+     */
+    public void recordWrites(Collection<Integer> customerIds) {
+        if (maxLag <= 0 || customerIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(customerIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(customerIds);
+            }
+        });
+    }
+
+    /**
+     * Runs reader on the primary if the customer wrote less than max-lag ms ago, as is
+     * (i.e. on the replica in a read-only transaction) otherwise.
+     */
+    public <T> T read(Integer customerId, Supplier<T> reader) {
+        Long lastWrite = customerId == null ? null : lastWrites.get(customerId);
+        if (lastWrite == null || System.currentTimeMillis() - lastWrite >= maxLag) {
+            return reader.get();
+        }
+        meterRegistry.counter("datasource.replica.bypassed").increment();
+        return ReadWriteRoutingDataSource.onPrimary(reader);
+    }
+
+    private void record(Collection<Integer> customerIds) {
+        long now = System.currentTimeMillis();
+        customerIds.forEach(customerId -> lastWrites.put(customerId, now));
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.purge-interval:60000}")
+    void purge() {
+        long expired = System.currentTimeMillis() - maxLag;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < expired);
+    }
+}
@@ -0,0 +1,69 @@
+package com.proj.customerservice.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pooling connection manager that records how long callers wait to lease a connection
+ * from the pool, as the http.client.pool.wait timer (tags: client, outcome).
+ * A growing wait time means the pool is too small for the load or the downstream service
+ * is slow to answer; the timeout outcome counts requests that gave up waiting.
+ */
+public class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leased;
+    private final Timer timedOut;
+
+    /**
+     * @param registry the registry the wait timer is registered in
+     * @param client   name of the client, used as the client tag
+     */
+    public TimedConnectionManager(MeterRegistry registry, String client) {
+        this.leased = waitTimer(registry, client, "success");
+        this.timedOut = waitTimer(registry, client, "timeout");
+    }
+
+    private static Timer waitTimer(MeterRegistry registry, String client, String outcome) {
+        return Timer.builder("http.client.pool.wait")
+                .description("Time spent waiting for a pooled connection")
+                .tag("client", client)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    ConnectionEndpoint endpoint = delegate.get(timeout);
+                    leased.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+}
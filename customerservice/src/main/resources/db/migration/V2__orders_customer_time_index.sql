@@ -0,0 +1,2 @@
+-- Backs the keyset pagination of the order history: orders of a customer by (ordertime, orderId)
+CREATE INDEX idx_orders_customer_time ON orders (customer, ordertime, orderId);
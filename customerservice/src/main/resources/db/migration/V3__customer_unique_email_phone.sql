@@ -0,0 +1,3 @@
+-- Registration relies on these constraints: two concurrent registrations can't both get the same email or phone number
+ALTER TABLE Customer ADD CONSTRAINT uk_customer_email UNIQUE (email);
+ALTER TABLE Customer ADD CONSTRAINT uk_customer_phone UNIQUE (phoneNumber);
@@ -0,0 +1,2 @@
+-- Optimistic locking of orders: bumped by every update, including the conditional cancellation
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Transactional outbox of the order lifecycle events, written in the transaction of the order change
+-- and deleted once delivered to every subscriber by OrderEventDispatcher
+CREATE TABLE order_outbox (
+    eventId BIGINT NOT NULL AUTO_INCREMENT,
+    eventType VARCHAR(32) NOT NULL,
+    orderId INT NOT NULL,
+    payload VARCHAR(2048) NOT NULL,
+    createdAt DATETIME(6) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    nextAttemptAt DATETIME(6) NOT NULL,
+    PRIMARY KEY (eventId)
+);
+CREATE INDEX idx_order_outbox_pending ON order_outbox (attempts, nextAttemptAt);
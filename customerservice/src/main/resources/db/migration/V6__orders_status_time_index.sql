@@ -0,0 +1,2 @@
+-- Backs the rebuild of the kitchen board at startup: active orders (status 1) by ordertime
+CREATE INDEX idx_orders_status_time ON orders (status, ordertime);
@@ -0,0 +1,4 @@
+-- Price of the dish when the order was placed and total of the order line (unitPrice * quantity),
+-- so that bills and revenue are computed locally and don't change with the menu.
+-- Orders placed before this migration have neither.
+ALTER TABLE orders ADD COLUMN unitPrice INT NULL, ADD COLUMN lineTotal BIGINT NULL;
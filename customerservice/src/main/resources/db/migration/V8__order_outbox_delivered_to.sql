@@ -0,0 +1,3 @@
+-- Subscribers that already handled an event whose delivery failed for another one (comma-separated
+-- names), so that OrderEventDispatcher only delivers it again to the subscribers that failed
+ALTER TABLE order_outbox ADD COLUMN deliveredTo VARCHAR(512) NOT NULL DEFAULT '';
@@ -0,0 +1,46 @@
+package com.proj.customerservice.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.proj.customerservice.exception.MenuException;
+import com.proj.customerservice.exception.TimeException;
+import com.proj.customerservice.service.OrderService;
+import com.proj.customerservice.util.ErrorResponse;
+
+class OrderControllerTest {
+
+	private OrderController controller;
+
+	@BeforeEach
+	void setUp() {
+		controller = new OrderController();
+		controller.orderService = mock(OrderService.class);
+	}
+
+	@Test
+	void answersACancellationOutsideTheWindowWith403() throws Exception {
+		when(controller.orderService.removeOrder(5)).thenThrow(new TimeException("Order can't be cancelled 10min after placing"));
+
+		ResponseEntity<?> response = controller.delOrder(5);
+
+		assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+		assertEquals(403, ((ErrorResponse) response.getBody()).getCode());
+	}
+
+	@Test
+	void answersAMissingOrderWith404() throws Exception {
+		when(controller.orderService.removeOrder(404)).thenThrow(new MenuException("Order not found"));
+
+		ResponseEntity<?> response = controller.delOrder(404);
+
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals(404, ((ErrorResponse) response.getBody()).getCode());
+	}
+}
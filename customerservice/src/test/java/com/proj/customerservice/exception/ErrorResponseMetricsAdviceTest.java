@@ -0,0 +1,53 @@
+package com.proj.customerservice.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.customerservice.beans.OrderBean;
+import com.proj.customerservice.controller.OrderController;
+import com.proj.customerservice.util.ErrorResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ErrorResponseMetricsAdviceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private ErrorResponseMetricsAdvice advice;
+	private MethodParameter placeOrder;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		advice = new ErrorResponseMetricsAdvice();
+		ReflectionTestUtils.setField(advice, "meterRegistry", meterRegistry);
+		placeOrder = new MethodParameter(OrderController.class.getMethod("placeOrder", OrderBean.class), -1);
+	}
+
+	@Test
+	void countsErrorResponsesByCodeAndHandler() {
+		ErrorResponse error = new ErrorResponse("Dish not found", 404);
+
+		assertSame(error, write(error));
+		write(new ErrorResponse("Dish not found", 404));
+
+		assertEquals(2, meterRegistry.counter("error.responses", "code", "404", "handler", "OrderController.placeOrder").count());
+	}
+
+	@Test
+	void ignoresOtherBodies() {
+		write("Failed to place order");
+		write(new OrderBean());
+
+		assertEquals(0, meterRegistry.find("error.responses").counters().size());
+	}
+
+	private Object write(Object body) {
+		return advice.beforeBodyWrite(body, placeOrder, MediaType.APPLICATION_JSON, null, null, null);
+	}
+}
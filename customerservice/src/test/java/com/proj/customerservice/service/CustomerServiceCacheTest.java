@@ -0,0 +1,85 @@
+package com.proj.customerservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.proj.customerservice.beans.CustomerCacheConfig;
+import com.proj.customerservice.entity.Customer;
+import com.proj.customerservice.entity.Orders;
+import com.proj.customerservice.repository.CustomerRepository;
+import com.proj.customerservice.util.ReadYourWritesGuard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CustomerServiceCacheTest {
+
+	private AnnotationConfigApplicationContext context;
+	private CustomerRepository customerRepository;
+	private CustomerService customerService;
+
+	@BeforeEach
+	void setUp() {
+		customerRepository = mock(CustomerRepository.class);
+		context = new AnnotationConfigApplicationContext();
+		context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+		context.registerBean(CustomerRepository.class, () -> customerRepository);
+		context.register(CustomerCacheConfig.class, ReadYourWritesGuard.class, CustomerService.class);
+		context.refresh();
+		customerService = context.getBean(CustomerService.class);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void cachesACopyOfTheCustomerWithoutItsOrders() {
+		Customer stored = customer(7);
+		stored.setOrder(List.of(new Orders()));
+		when(customerRepository.findByCustomerId(7)).thenReturn(stored);
+
+		Customer first = customerService.findById(7);
+		Customer second = customerService.findById(7);
+
+		assertNotSame(stored, first);
+		assertNull(first.getOrder());
+		assertEquals("Asha", second.getFirstName());
+		verify(customerRepository, times(1)).findByCustomerId(7);
+		assertEquals(0.5, context.getBean(MeterRegistry.class).get("cache.hit.ratio").gauge().value());
+	}
+
+	@Test
+	void doesNotCacheUnknownCustomers() throws Exception {
+		assertNull(customerService.findById(8));
+		when(customerRepository.saveAndFlush(any())).thenReturn(customer(8));
+		customerService.addService(customer(null));
+		when(customerRepository.findByCustomerId(8)).thenReturn(customer(8));
+
+		assertEquals(8, customerService.findById(8).getCustomerId());
+		verify(customerRepository, times(2)).findByCustomerId(8);
+	}
+
+	private static Customer customer(Integer customerId) {
+		Customer customer = new Customer();
+		customer.setCustomerId(customerId);
+		customer.setFirstName("Asha");
+		customer.setEmail("asha@example.com");
+		customer.setPhoneNumber("9876543210");
+		return customer;
+	}
+}
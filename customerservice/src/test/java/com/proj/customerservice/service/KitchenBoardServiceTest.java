@@ -0,0 +1,77 @@
+package com.proj.customerservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.proj.customerservice.beans.KitchenBoardBean;
+import com.proj.customerservice.beans.KitchenDishBean;
+import com.proj.customerservice.beans.KitchenOrderBean;
+import com.proj.customerservice.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KitchenBoardServiceTest {
+
+	private KitchenBoardService board;
+
+	@BeforeEach
+	void setUp() {
+		OrderRepository orderRepository = mock(OrderRepository.class);
+		when(orderRepository.findActiveSince(any())).thenReturn(List.of());
+		board = new KitchenBoardService();
+		board.orderRepository = orderRepository;
+		board.meterRegistry = new SimpleMeterRegistry();
+		board.maxAge = 60_000;
+		board.maxScreens = 10;
+		board.screenTimeout = 60_000;
+		board.queueCapacity = 100;
+		board.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		board.shutdown();
+	}
+
+	@Test
+	void groupsActiveOrdersByDishOldestFirst() {
+		LocalDateTime now = LocalDateTime.now();
+		board.ordersPlaced(List.of(order(3, 7, now), order(1, 7, now.minusSeconds(5)), order(2, 9, now)));
+		board.ordersPlaced(List.of(order(3, 7, now))); // Already on the board
+
+		KitchenBoardBean snapshot = board.snapshot(null);
+		assertEquals(3, snapshot.getVersion());
+		assertEquals(List.of(7, 9), snapshot.getDishes().stream().map(KitchenDishBean::getDishId).toList());
+		KitchenDishBean dish7 = snapshot.getDishes().get(0);
+		assertEquals(List.of(1, 3), dish7.getOrders().stream().map(KitchenOrderBean::getOrderId).toList());
+		assertEquals(4, dish7.getQuantity());
+	}
+
+	@Test
+	void cancelledAndExpiredOrdersLeaveTheBoard() {
+		LocalDateTime now = LocalDateTime.now();
+		board.ordersPlaced(List.of(order(1, 7, now.minusMinutes(5)), order(2, 7, now), order(3, 9, now)));
+
+		board.orderCancelled(3);
+		board.expire();
+
+		KitchenBoardBean snapshot = board.snapshot(null);
+		assertEquals(5, snapshot.getVersion());
+		assertEquals(1, snapshot.getDishes().size());
+		assertEquals(List.of(2), snapshot.getDishes().get(0).getOrders().stream().map(KitchenOrderBean::getOrderId).toList());
+		assertEquals(List.of(), board.snapshot(9).getDishes());
+	}
+
+	private static KitchenOrderBean order(int orderId, int dishId, LocalDateTime ordertime) {
+		return new KitchenOrderBean(orderId, dishId, 42, 2, ordertime);
+	}
+}
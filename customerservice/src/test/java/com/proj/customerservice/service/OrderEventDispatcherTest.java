@@ -0,0 +1,189 @@
+package com.proj.customerservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.event.OrderEventSubscriber;
+import com.proj.customerservice.event.OrderEventType;
+import com.proj.customerservice.repository.OrderOutboxRepository;
+import com.proj.customerservice.repository.OrderOutboxRepository.Failure;
+import com.proj.customerservice.repository.OrderOutboxRepository.OutboxEntry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderEventDispatcherTest {
+
+	private OrderOutboxRepository outboxRepository;
+	private SimpleMeterRegistry meterRegistry;
+	private List<List<OrderEvent>> received;
+	private boolean failing;
+	private PlatformTransactionManager transactionManager;
+	private List<Integer> commitsBeforeDelivery;
+	private OrderEventDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		outboxRepository = mock(OrderOutboxRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		received = new ArrayList<>();
+		transactionManager = mock(PlatformTransactionManager.class);
+		commitsBeforeDelivery = new ArrayList<>();
+		OrderEventSubscriber subscriber = events -> {
+			received.add(events);
+			commitsBeforeDelivery.add(commits());
+			if (failing) {
+				throw new IllegalStateException("subscriber down");
+			}
+		};
+		dispatcher = new OrderEventDispatcher();
+		dispatcher.outboxRepository = outboxRepository;
+		dispatcher.subscribers = List.of(subscriber);
+		dispatcher.transactionManager = transactionManager;
+		dispatcher.meterRegistry = meterRegistry;
+		dispatcher.batchSize = 100;
+		dispatcher.maxAttempts = 3;
+		dispatcher.retryBackoff = 1000;
+		dispatcher.maxBackoff = 60000;
+		dispatcher.lease = 30000;
+		dispatcher.init();
+	}
+
+	@Test
+	void deliversAndDeletesPendingEvents() {
+		when(outboxRepository.lockPending(anyInt(), anyInt(), any())).thenReturn(List.of(entry(1, 0), entry(2, 0)));
+
+		dispatcher.dispatch();
+
+		assertEquals(1, received.size());
+		assertEquals(List.of(1, 2), received.get(0).stream().map(OrderEvent::getOrderId).toList());
+		verify(outboxRepository).delete(List.of(1L, 2L));
+		assertEquals(2, meterRegistry.counter("order.outbox.events", "result", "published").count());
+	}
+
+	@Test
+	void claimsTheBatchAndCommitsBeforeDelivering() {
+		when(outboxRepository.lockPending(anyInt(), anyInt(), any())).thenReturn(List.of(entry(1, 0), entry(2, 0)));
+
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatch();
+
+		ArgumentCaptor<LocalDateTime> leasedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(outboxRepository).lease(eq(List.of(1L, 2L)), leasedUntil.capture());
+		long lease = Duration.between(before, leasedUntil.getValue()).toMillis();
+		assertTrue(lease >= 30000 && lease < 31000, "lease: " + lease);
+		// The row locks are released before the subscribers run
+		assertEquals(List.of(1), commitsBeforeDelivery);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void failedEventsAreRetriedLaterWithBackoffThenGivenUp() {
+		failing = true;
+		when(outboxRepository.lockPending(anyInt(), anyInt(), any())).thenReturn(List.of(entry(1, 1), entry(2, 2)));
+
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatch();
+
+		ArgumentCaptor<List<Failure>> failures = ArgumentCaptor.forClass(List.class);
+		verify(outboxRepository).markFailed(failures.capture());
+		verify(outboxRepository, never()).delete(any());
+		assertEquals(List.of(1L, 2L), failures.getValue().stream().map(Failure::eventId).toList());
+		// Second and third attempts: 1000 ms doubled once, then twice
+		long backoff1 = Duration.between(before, failures.getValue().get(0).nextAttemptAt()).toMillis();
+		long backoff2 = Duration.between(before, failures.getValue().get(1).nextAttemptAt()).toMillis();
+		assertTrue(backoff1 >= 2000 && backoff1 < 3000, "backoff: " + backoff1);
+		assertTrue(backoff2 >= 4000 && backoff2 < 5000, "backoff: " + backoff2);
+		assertEquals(2, meterRegistry.counter("order.outbox.events", "result", "failed").count());
+		assertEquals(1, meterRegistry.counter("order.outbox.events", "result", "dead").count());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void onlyThePoisonEventIsRetriedAndOnlyForTheSubscriberThatFailed() {
+		List<Integer> analytics = new ArrayList<>();
+		OrderEventSubscriber notifications = new OrderEventSubscriber() {
+			@Override
+			public void onEvents(List<OrderEvent> events) {
+				if (events.stream().anyMatch(event -> event.getOrderId() == 2)) {
+					throw new IllegalArgumentException("poison");
+				}
+			}
+
+			@Override
+			public String name() {
+				return "notifications";
+			}
+		};
+		OrderEventSubscriber analyticsSubscriber = new OrderEventSubscriber() {
+			@Override
+			public void onEvents(List<OrderEvent> events) {
+				events.forEach(event -> analytics.add(event.getOrderId()));
+			}
+
+			@Override
+			public String name() {
+				return "analytics";
+			}
+		};
+		dispatcher.subscribers = List.of(analyticsSubscriber, notifications);
+		when(outboxRepository.lockPending(anyInt(), anyInt(), any()))
+				.thenReturn(List.of(entry(1, 0), entry(2, 0), entry(3, 0)));
+
+		dispatcher.dispatch();
+
+		verify(outboxRepository).delete(List.of(1L, 3L));
+		ArgumentCaptor<List<Failure>> failures = ArgumentCaptor.forClass(List.class);
+		verify(outboxRepository).markFailed(failures.capture());
+		assertEquals(1, failures.getValue().size());
+		assertEquals(2L, failures.getValue().get(0).eventId());
+		assertEquals(Set.of("analytics"), failures.getValue().get(0).deliveredTo());
+		assertEquals(List.of(1, 2, 3), analytics);
+		assertEquals(2, meterRegistry.counter("order.outbox.events", "result", "published").count());
+		assertEquals(1, meterRegistry.counter("order.outbox.events", "result", "failed").count());
+	}
+
+	@Test
+	void retriedEventIsNotDeliveredAgainToTheSubscribersThatHandledIt() {
+		OutboxEntry retried = entry(1, 1);
+		retried.getDeliveredTo().add(dispatcher.subscribers.get(0).name());
+		when(outboxRepository.lockPending(anyInt(), anyInt(), any())).thenReturn(List.of(retried, entry(2, 0)));
+
+		dispatcher.dispatch();
+
+		assertEquals(List.of(2), received.get(0).stream().map(OrderEvent::getOrderId).toList());
+		verify(outboxRepository).delete(List.of(1L, 2L));
+	}
+
+	private int commits() {
+		return (int) mockingDetails(transactionManager).getInvocations().stream()
+				.filter(invocation -> invocation.getMethod().getName().equals("commit"))
+				.count();
+	}
+
+	private static OutboxEntry entry(long eventId, int attempts) {
+		OrderEvent event = new OrderEvent(eventId, OrderEventType.ORDER_CREATED, (int) eventId, 7, 42, 1, 1,
+				LocalDateTime.now(), LocalDateTime.now());
+		return new OutboxEntry(eventId, attempts, event.getOccurredAt(), event, new LinkedHashSet<>());
+	}
+}
@@ -0,0 +1,203 @@
+package com.proj.customerservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.proj.customerservice.DTO.OrderView;
+import com.proj.customerservice.beans.DishBean;
+import com.proj.customerservice.beans.OrderBean;
+import com.proj.customerservice.entity.Customer;
+import com.proj.customerservice.exception.MenuException;
+import com.proj.customerservice.exception.TimeException;
+import com.proj.customerservice.repository.OrderOutboxRepository;
+import com.proj.customerservice.repository.OrderRepository;
+import com.proj.customerservice.util.ErrorResponse;
+import com.proj.customerservice.util.ReadYourWritesGuard;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+
+class OrderServiceTest {
+
+	private final CountDownLatch foodServiceAnswers = new CountDownLatch(1);
+	private ExecutorService executor;
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+		orderService = new OrderService();
+		orderService.orderRepository = mock(OrderRepository.class);
+		orderService.outboxRepository = mock(OrderOutboxRepository.class);
+		orderService.kitchenBoardService = mock(KitchenBoardService.class);
+		orderService.readYourWritesGuard = new ReadYourWritesGuard();
+		orderService.customerService = mock(CustomerService.class);
+		orderService.menuReplicaService = mock(MenuReplicaService.class);
+		orderService.restTemplate = mock(RestTemplate.class);
+		orderService.orderValidationExecutor = executor;
+		orderService.meterRegistry = new SimpleMeterRegistry();
+		orderService.foodServiceUrl = "http://foodservice/client1";
+		orderService.validationTimeout = 200;
+		when(orderService.orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		foodServiceAnswers.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void looksTheCustomerUpOnTheCallingThreadWhenTheReplicaKnowsTheDish() {
+		ExecutorService unused = mock(ExecutorService.class);
+		orderService.orderValidationExecutor = unused;
+		when(orderService.menuReplicaService.getUnitPrice(3)).thenReturn(120);
+		AtomicReference<Thread> lookupThread = new AtomicReference<>();
+		when(orderService.customerService.findById(7)).thenAnswer(invocation -> {
+			lookupThread.set(Thread.currentThread());
+			return customer(7);
+		});
+
+		ResponseEntity<?> response = orderService.addOrder(order(3, 7));
+
+		assertEquals(HttpStatus.CREATED, response.getStatusCode());
+		assertSame(Thread.currentThread(), lookupThread.get());
+		verifyNoInteractions(unused);
+	}
+
+	@Test
+	void answersAFoodServiceTimeoutWith504() {
+		when(orderService.menuReplicaService.getUnitPrice(3)).thenReturn(null); // Unknown to the replica
+		when(orderService.customerService.findById(7)).thenReturn(customer(7));
+		when(orderService.restTemplate.getForEntity(anyString(), eq(DishBean.class), eq(3))).thenAnswer(invocation -> {
+			foodServiceAnswers.await();
+			return ResponseEntity.ok(new DishBean());
+		});
+
+		ResponseEntity<?> response = orderService.addOrder(order(3, 7));
+
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+		assertEquals(504, ((ErrorResponse) response.getBody()).getCode());
+	}
+
+	@Test
+	void answersAnUnreachableFoodServiceWith503NotAsAnUnknownDish() {
+		when(orderService.menuReplicaService.getUnitPrice(3)).thenReturn(null);
+		when(orderService.customerService.findById(7)).thenReturn(customer(7));
+		when(orderService.restTemplate.getForEntity(anyString(), eq(DishBean.class), eq(3)))
+				.thenThrow(new ResourceAccessException("I/O error", new ConnectException("Connection refused")));
+
+		ResponseEntity<?> response = orderService.addOrder(order(3, 7));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals(503, ((ErrorResponse) response.getBody()).getCode());
+	}
+
+	@Test
+	void answersAnHttpClientTimeoutWith504AndAMissingDishWith404() {
+		when(orderService.menuReplicaService.getUnitPrice(anyInt())).thenReturn(null);
+		when(orderService.customerService.findById(7)).thenReturn(customer(7));
+		when(orderService.restTemplate.getForEntity(anyString(), eq(DishBean.class), eq(3)))
+				.thenThrow(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")));
+		when(orderService.restTemplate.getForEntity(anyString(), eq(DishBean.class), eq(4)))
+				.thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT, orderService.addOrder(order(3, 7)).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, orderService.addOrder(order(4, 7)).getStatusCode());
+	}
+
+	@Test
+	void rejectsTheCancellationOfAnOrderCancelledOutsideTheWindow() {
+		OrderView order = mock(OrderView.class);
+		when(order.getStatus()).thenReturn(0);
+		when(order.getOrdertime()).thenReturn(LocalDateTime.now().minusMinutes(30));
+		when(orderService.orderRepository.findViewByOrderId(5)).thenReturn(order);
+
+		assertThrows(TimeException.class, () -> orderService.removeOrder(5));
+		verifyNoInteractions(orderService.outboxRepository);
+	}
+
+	@Test
+	void returnsAnOrderAlreadyCancelledWithinTheWindowUnchanged() throws Exception {
+		OrderView order = mock(OrderView.class);
+		when(order.getOrderId()).thenReturn(5);
+		when(order.getStatus()).thenReturn(0);
+		when(order.getOrdertime()).thenReturn(LocalDateTime.now().minusMinutes(2));
+		when(orderService.orderRepository.findViewByOrderId(5)).thenReturn(order);
+
+		assertEquals(0, orderService.removeOrder(5).getStatus());
+		verifyNoInteractions(orderService.outboxRepository);
+	}
+
+	@Test
+	void reportsAMissingOrderAsNotFound() {
+		assertThrows(MenuException.class, () -> orderService.removeOrder(404));
+		verify(orderService.orderRepository).findViewByOrderId(404);
+	}
+
+	@Test
+	void timesAFailedBatchAsAnError() {
+		orderService.validator = mock(Validator.class);
+		orderService.batchMaxSize = 10;
+		when(orderService.menuReplicaService.getUnitPrice(3)).thenReturn(120);
+		when(orderService.customerService.findExistingIds(any())).thenThrow(new IllegalStateException("database down"));
+
+		assertThrows(IllegalStateException.class, () -> orderService.addOrders(List.of(order(3, 7))));
+		assertEquals(1, batchTimer("error").count());
+		assertEquals(0, batchTimer("success").count());
+	}
+
+	@Test
+	void timesAnOversizedBatchAsRejected() {
+		orderService.batchMaxSize = 1;
+
+		assertThrows(IllegalArgumentException.class, () -> orderService.addOrders(List.of(order(3, 7), order(3, 8))));
+		assertEquals(1, batchTimer("rejected").count());
+	}
+
+	private Timer batchTimer(String outcome) {
+		return orderService.meterRegistry.timer("order.operation", "operation", "add_batch", "outcome", outcome);
+	}
+
+	private static OrderBean order(int dishId, int customerId) {
+		OrderBean order = new OrderBean();
+		order.setDishId(dishId);
+		order.setCustomerId(customerId);
+		order.setQuantity(2);
+		return order;
+	}
+
+	private static Customer customer(int customerId) {
+		Customer customer = new Customer();
+		customer.setCustomerId(customerId);
+		return customer;
+	}
+}
@@ -0,0 +1,107 @@
+package com.proj.customerservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.customerservice.beans.DishSalesBean;
+import com.proj.customerservice.beans.OrderRateBean;
+import com.proj.customerservice.event.OrderEvent;
+import com.proj.customerservice.event.OrderEventType;
+
+class SalesAnalyticsServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 2, 12, 30, 20);
+
+	@TempDir
+	Path directory;
+
+	private SalesAnalyticsService analytics;
+
+	@BeforeEach
+	void setUp() {
+		analytics = service(NOW);
+	}
+
+	@Test
+	void countsOrdersPerMinuteDishAndCustomer() {
+		analytics.onEvents(List.of(
+				created(1, 7, 100, 2, NOW.minusMinutes(2)),
+				created(2, 9, 100, 1, NOW.minusMinutes(1)),
+				created(3, 9, 101, 1, NOW),
+				created(4, 9, 101, 1, NOW),
+				cancelled(5, 2, 9, 100, NOW)));
+		// Delivered again: not counted twice
+		analytics.onEvents(List.of(created(4, 9, 101, 1, NOW), cancelled(5, 2, 9, 100, NOW)));
+		// Older than the window: ignored
+		analytics.onEvents(List.of(created(6, 7, 100, 5, NOW.minusMinutes(10))));
+
+		assertEquals(List.of(9, 7), analytics.topDishes(10, 10).stream().map(DishSalesBean::getDishId).toList());
+		assertEquals(new DishSalesBean(9, 3, 2, 1), analytics.topDishes(10, 1).get(0));
+		assertEquals(List.of(9), analytics.topDishes(1, 10).stream().map(DishSalesBean::getDishId).toList());
+		assertEquals(List.of(1L, 1L, 2L), analytics.ordersPerMinute(3).stream().map(OrderRateBean::getPlaced).toList());
+		assertEquals(List.of(0L, 0L, 1L), analytics.ordersPerMinute(3).stream().map(OrderRateBean::getCancelled).toList());
+		assertEquals(NOW.withSecond(0), analytics.ordersPerMinute(1).get(0).getMinute());
+		assertEquals(0.25, analytics.cancellationRate(10).getRate());
+		assertEquals(0.5, analytics.cancellationRate(1).getRate());
+		// The quantity of order 2 is taken back from its minute
+		assertEquals(2, analytics.customerSales(100, 10).getQuantity());
+		assertEquals(1, analytics.customerSales(100, 10).getCancelled());
+		assertThrows(IllegalArgumentException.class, () -> analytics.cancellationRate(11));
+	}
+
+	@Test
+	void takesBackTheQuantityOfAnOrderOnlyIfItCountedIt() {
+		// Order 2 was placed (and counted) on another instance
+		analytics.onEvents(List.of(created(1, 9, 100, 1, NOW.minusMinutes(1)), cancelled(5, 2, 9, 100, NOW)));
+		assertEquals(1, analytics.topDishes(10, 1).get(0).getQuantity());
+
+		analytics.onEvents(List.of(cancelled(6, 1, 9, 100, NOW)));
+		analytics.checkpoint();
+		// Cancelled again (another event): taken back once only, also after a restart
+		SalesAnalyticsService later = service(NOW);
+		later.onEvents(List.of(cancelled(7, 1, 9, 100, NOW)));
+		assertEquals(new DishSalesBean(9, 1, 0, 3), later.topDishes(10, 1).get(0));
+	}
+
+	@Test
+	void restoresTheWindowFromTheCheckpoint() {
+		analytics.onEvents(List.of(created(1, 7, 100, 2, NOW.minusMinutes(9)), created(2, 9, 100, 1, NOW)));
+		analytics.checkpoint();
+
+		// Five minutes later the minute of order 1 has left the window: the slot of its bucket is reused by minute NOW + 1
+		SalesAnalyticsService later = service(NOW.plusMinutes(5));
+		assertEquals(List.of(9), later.topDishes(10, 10).stream().map(DishSalesBean::getDishId).toList());
+		later.onEvents(List.of(created(2, 9, 100, 1, NOW), created(3, 8, 100, 1, NOW.plusMinutes(1))));
+		assertEquals(2, later.cancellationRate(10).getPlaced());
+	}
+
+	private SalesAnalyticsService service(LocalDateTime now) {
+		SalesAnalyticsService service = new SalesAnalyticsService();
+		service.objectMapper = new ObjectMapper();
+		service.windowMinutes = 10;
+		service.checkpointPath = directory.resolve("checkpoint.json").toString();
+		service.clock = Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+		service.init();
+		return service;
+	}
+
+	private static OrderEvent created(long eventId, int dishId, int customerId, int quantity, LocalDateTime time) {
+		return new OrderEvent(eventId, OrderEventType.ORDER_CREATED, (int) eventId, dishId, customerId, quantity, 1, time, time);
+	}
+
+	private static OrderEvent cancelled(long eventId, int orderId, int dishId, int customerId, LocalDateTime time) {
+		return new OrderEvent(eventId, OrderEventType.ORDER_CANCELLED, orderId, dishId, customerId, 1, 0,
+				time.minusMinutes(1), time);
+	}
+}
@@ -0,0 +1,77 @@
+package com.proj.customerservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+class DuplicateContactsCheckTest {
+
+	private Connection connection;
+	private JdbcTemplate jdbcTemplate;
+	private final DuplicateContactsCheck check = new DuplicateContactsCheck();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		connection = DriverManager.getConnection("jdbc:h2:mem:contacts;DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+		jdbcTemplate.execute("CREATE TABLE Customer (customerId INT PRIMARY KEY, email VARCHAR(255), phoneNumber VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO Customer VALUES (1, 'a@example.com', '9000000001'), (2, 'b@example.com', '9000000002')");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		jdbcTemplate.execute("DROP TABLE Customer");
+		connection.close();
+	}
+
+	@Test
+	void runsBeforeTheUniqueConstraintsMigrationOnly() {
+		assertTrue(check.supports(Event.BEFORE_EACH_MIGRATE, context("3")));
+		assertFalse(check.supports(Event.BEFORE_EACH_MIGRATE, context("4")));
+		assertFalse(check.supports(Event.AFTER_EACH_MIGRATE, context("3")));
+	}
+
+	@Test
+	void letsTheMigrationRunWithoutDuplicates() {
+		assertDoesNotThrow(() -> check.handle(Event.BEFORE_EACH_MIGRATE, context("3")));
+	}
+
+	@Test
+	void stopsTheMigrationWithTheDuplicatedContacts() {
+		jdbcTemplate.update("INSERT INTO Customer VALUES (3, 'a@example.com', '9000000003'), (4, 'c@example.com', '9000000002')");
+
+		FlywayException e = assertThrows(FlywayException.class, () -> check.handle(Event.BEFORE_EACH_MIGRATE, context("3")));
+
+		assertTrue(e.getMessage().contains("1 emails [a@example.com]"), e.getMessage());
+		assertTrue(e.getMessage().contains("1 phone numbers [9000000002]"), e.getMessage());
+		assertTrue(e.getMessage().contains(DuplicateContactsCheck.FIND_DUPLICATES_QUERY), e.getMessage());
+		assertEquals(4, jdbcTemplate.queryForList(DuplicateContactsCheck.FIND_DUPLICATES_QUERY).size());
+	}
+
+	private Context context(String version) {
+		MigrationInfo migration = mock(MigrationInfo.class);
+		when(migration.getVersion()).thenReturn(MigrationVersion.fromVersion(version));
+		Context context = mock(Context.class);
+		when(context.getMigrationInfo()).thenReturn(migration);
+		when(context.getConnection()).thenReturn(connection);
+		return context;
+	}
+}
@@ -0,0 +1,31 @@
+package com.proj.customerservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class OrderCursorTest {
+
+	@Test
+	void tokenRoundTrips() {
+		LocalDateTime ordertime = LocalDateTime.of(2024, 8, 30, 12, 15, 42, 123000000);
+		OrderCursor cursor = OrderCursor.decode(new OrderCursor(ordertime, 42).encode());
+		assertEquals(ordertime, cursor.getOrdertime());
+		assertEquals(42, cursor.getOrderId());
+	}
+
+	@Test
+	void missingTokenStartsAtFirstPage() {
+		assertSame(OrderCursor.FIRST, OrderCursor.decode(null));
+		assertSame(OrderCursor.FIRST, OrderCursor.decode(""));
+	}
+
+	@Test
+	void malformedTokenIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not-a-cursor"));
+	}
+}
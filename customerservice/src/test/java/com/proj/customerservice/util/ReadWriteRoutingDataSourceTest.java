@@ -0,0 +1,85 @@
+package com.proj.customerservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReadWriteRoutingDataSourceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+	private ReadYourWritesGuard guard;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(database("primary"), database("replica"),
+				meterRegistry);
+		routing.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		guard = new ReadYourWritesGuard();
+		guard.meterRegistry = meterRegistry;
+		guard.maxLag = 60000;
+	}
+
+	@Test
+	void sendsReadOnlyTransactionsToTheReplica() {
+		assertEquals("primary", readWrite.execute(status -> role()));
+		assertEquals("replica", readOnly.execute(status -> role()));
+		assertEquals("primary", role());
+		assertEquals("primary", readOnly.execute(status -> ReadWriteRoutingDataSource.onPrimary(this::role)));
+		assertEquals(1, meterRegistry.counter("datasource.routing", "role", "replica").count());
+	}
+
+	@Test
+	void readsTheWritesOfACustomerFromThePrimaryOnceCommitted() {
+		readWrite.execute(status -> {
+			guard.recordWrite(1);
+			return null;
+		});
+		// Rolled back: nothing to read back
+		readWrite.execute(status -> {
+			guard.recordWrite(2);
+			status.setRollbackOnly();
+			return null;
+		});
+
+		assertEquals("primary", readOnly.execute(status -> guard.read(1, this::role)));
+		assertEquals("replica", readOnly.execute(status -> guard.read(2, this::role)));
+		assertEquals(1, meterRegistry.counter("datasource.replica.bypassed").count());
+
+		guard.maxLag = 0;
+		assertEquals("replica", readOnly.execute(status -> guard.read(1, this::role)));
+	}
+
+	private String role() {
+		return jdbcTemplate.queryForObject("SELECT role FROM node", String.class);
+	}
+
+	private static DataSource database(String role) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + role + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (role VARCHAR(16))");
+		jdbcTemplate.update("DELETE FROM node");
+		jdbcTemplate.update("INSERT INTO node VALUES (?)", role);
+		return dataSource;
+	}
+}
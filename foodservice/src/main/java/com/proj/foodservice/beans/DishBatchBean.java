@@ -0,0 +1,27 @@
+/**
+ * 
+ */
+package com.proj.foodservice.beans;
+
+import java.util.List;
+import java.util.Map;
+
+import com.proj.foodservice.entity.MenuItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of the batch dish lookup (GET and POST /dish/batch).
+ *
+ * - dishes: The dishes found, keyed by dishId.
+ * - missing: The requested IDs for which no dish exists.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DishBatchBean {
+	private Map<Integer, MenuItem> dishes;
+	private List<Integer> missing;
+}
@@ -0,0 +1,20 @@
+/**
+ * 
+ */
+package com.proj.foodservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Minimal view of a dish shared with other services through the catalog feed:
+ * only the identifier and the current unit price.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DishPriceBean {
+	private Integer dishId;
+	private Integer unitPrice;
+}
@@ -0,0 +1,18 @@
+package com.proj.foodservice.beans;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A dish suggested while a customer types its name: just enough to display it and
+ * fetch it with GET /dish/{dishId}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DishSuggestionBean {
+	private Integer dishId;
+	private String dishName;
+	private String dishCategory;
+}
@@ -0,0 +1,34 @@
+/**
+ * 
+ */
+package com.proj.foodservice.beans;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of the menu catalog feed (GET /dish/catalog).
+ *
+ * - catalogId: Identifies the snapshot the response brings the client up to, a hash of the
+ *   menu that every foodservice instance computes alike: clients send it back to get the
+ *   changes since then, from any instance.
+ * - version: The catalog version of the snapshot on the instance that answered, for the logs
+ *   only (every instance counts its own versions).
+ * - full: true when dishes holds the complete menu and the client must replace its copy,
+ *   false when dishes and removed only hold the changes since the requested snapshot.
+ * - dishes: Dishes added or changed (or every dish when full is true).
+ * - removed: Identifiers of dishes that no longer exist.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuCatalogBean {
+	private String catalogId;
+	private long version;
+	private boolean full;
+	private List<DishPriceBean> dishes;
+	private List<Integer> removed;
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ */
+package com.proj.foodservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.proj.foodservice.util.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the database connections, split between two connection pools:
+ * - primary: spring.datasource.* (pool settings under spring.datasource.hikari.*), used for
+ *   writes and read-write transactions.
+ * - replica: datasource.replica.* (pool settings under datasource.replica.hikari.*), used for
+ *   the read-only transactions of MenuItemService, i.e. the menu cache misses.
+ *   Without a datasource.replica.url the replica pool connects to the primary database.
+ *
+ * The DataSource used by JPA is a ReadWriteRoutingDataSource behind a
+ * LazyConnectionDataSourceProxy, so the pool is chosen at the first statement of each
+ * transaction. The pools are named after their role, so their metrics (hikaricp.connections.*)
+ * are tagged pool=primary|replica.
+ */
+@Configuration
+public class DataSourceConfig {
+
+	@Value("${datasource.replica.url:${spring.datasource.url}}")
+	private String replicaUrl; // Replica database, the primary one by default
+
+	@Value("${datasource.replica.username:${spring.datasource.username:}}")
+	private String replicaUsername;
+
+	@Value("${datasource.replica.password:${spring.datasource.password:}}")
+	private String replicaPassword;
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+				.url(replicaUrl).username(replicaUsername).password(replicaPassword).build();
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica, MeterRegistry meterRegistry) {
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, meterRegistry);
+		routing.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(routing);
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ *
+ */
+package com.proj.foodservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proj.foodservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the in-process menu caches used by MenuItemService.
+ *
+ * Two bounded Caffeine caches are registered:
+ * - dish: single MenuItem keyed by dishId, read on every order placed.
+ * - dishCategory: the category-to-dish-list index keyed by dishCategory.
+ *
+ * Each cache has its own size and TTL spec (see menu.cache.* in application.properties)
+ * and records statistics, so Spring Boot binds them to Micrometer and the hit, miss and
+ * eviction counters show up under /actuator/metrics/cache.gets and cache.evictions.
+ * Entries can be dropped at runtime through /actuator/caches or the evict methods of
+ * MenuItemService.
+ *
+ * Cache misses are loaded through the menuSingleFlight, so that concurrent misses for the
+ * same dish or category (e.g. right after an eviction at lunch peak) share one query. The
+ * callers wait at most menu.singleflight.max-wait for it, and are answered 503 after that.
+ */
+@Configuration
+@EnableCaching
+public class MenuCacheConfig {
+
+	public static final String DISH_CACHE = "dish";
+	public static final String CATEGORY_CACHE = "dishCategory";
+
+	@Value("${menu.cache.dish.spec:maximumSize=1000,expireAfterWrite=10m}")
+	private String dishSpec;
+
+	@Value("${menu.cache.category.spec:maximumSize=100,expireAfterWrite=10m}")
+	private String categorySpec;
+
+	@Value("${menu.singleflight.max-wait:2000}")
+	private long singleFlightMaxWait; // ms
+
+	@Bean
+	public CacheManager cacheManager() {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		cacheManager.registerCustomCache(DISH_CACHE, Caffeine.from(dishSpec).recordStats().build());
+		cacheManager.registerCustomCache(CATEGORY_CACHE, Caffeine.from(categorySpec).recordStats().build());
+		return cacheManager;
+	}
+
+	@Bean
+	public SingleFlight menuSingleFlight(MeterRegistry meterRegistry) {
+		return new SingleFlight("menu", Duration.ofMillis(singleFlightMaxWait), meterRegistry);
+	}
+}
@@ -4,22 +4,37 @@
 package com.proj.foodservice.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.proj.foodservice.beans.DishBatchBean;
+import com.proj.foodservice.beans.DishSuggestionBean;
+import com.proj.foodservice.beans.MenuCatalogBean;
 import com.proj.foodservice.entity.MenuItem;
 import com.proj.foodservice.exception.MenuException;
+import com.proj.foodservice.service.MenuCatalogService;
 import com.proj.foodservice.service.MenuItemService;
+import com.proj.foodservice.service.MenuPriceService;
+import com.proj.foodservice.service.MenuPriceService.PriceOrder;
+import com.proj.foodservice.service.MenuSearchService;
 import com.proj.foodservice.util.ErrorResponse;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * This class is a REST controller that handles HTTP requests related to menu items (dishes).
  * It provides end points to perform operations such as retrieving a dish by its ID
@@ -34,6 +49,10 @@ import com.proj.foodservice.util.ErrorResponse;
  * - @RequestMapping("/dish"): Specifies the base URL path for which this controller will handle requests.
  *   All end points in this controller will be prefixed with "/dish".
  *   For example, "/dish/{dishId}" or "/dish/category/{dishCategory}".
+ *
+ * The menu reads are timed as menu.operation, including the time spent in the menu cache,
+ * tagged with operation=get_menu_by_id|get_menus|get_menus_by_price|get_cheapest|get_menus_by_ids|search|suggest and
+ * outcome=success|not_found|rejected.
  */
 
 @RestController
@@ -42,9 +61,30 @@ public class MenuItemController {
 	
 	 private static final Logger logger = LoggerFactory.getLogger(MenuItemController.class);
 
+    // Number of missing IDs of a batch lookup written to the log
+    private static final int MISSING_IDS_LOGGED = 10;
+
 
     @Autowired
     private MenuItemService service;
+
+    @Autowired
+    private MenuCatalogService catalogService;
+
+    @Autowired
+    private MenuSearchService searchService;
+
+    @Autowired
+    private MenuPriceService priceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Number of results of a search or suggestion by default, and at most
+    @Value("${menu.search.default-results:10}")
+    private int defaultResults;
+    @Value("${menu.search.max-results:50}")
+    private int maxResults;
     /**
      * Retrieves a menu item by its ID.
      *
@@ -54,39 +94,214 @@ public class MenuItemController {
     @GetMapping("/{dishId}")
     public ResponseEntity<?> getMenuById(@PathVariable int dishId) {
     	logger.info("Received request to get dish by ID: {}", dishId);
+    	Timer.Sample sample = Timer.start(meterRegistry);
         try {
         	// Attempt to fetch the menu item from the service layer
             MenuItem menuItem = service.getMenuById(dishId);
+            sample.stop(menuTimer("get_menu_by_id", "success"));
             logger.info("Successfully retrieved dish with ID {}: {}", dishId, menuItem);
             return new ResponseEntity<>(menuItem, HttpStatus.OK);
         } catch (MenuException e) {
         	// Log the error if the dish ID is not found or any other issue occurs
+            sample.stop(menuTimer("get_menu_by_id", "not_found"));
             logger.error("Error retrieving dish with ID {}: {}", dishId, e.getMessage());
-            System.out.println(e.getMessage());
             return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
         }
     }
     /**
-     * Retrieves a list of menu items by their category.
+     * Retrieves a list of menu items by their category, e.g. GET /dish/category/Main, or the
+     * ones within a price range and/or sorted by price, e.g.
+     * GET /dish/category/Main?maxPrice=300&sort=price&limit=5 for the 5 cheapest mains under 300.
+     * The price queries are served by MenuPriceService.
      *
      * @param dishCategory The category of dishes to retrieve.
+     * @param minPrice     The lowest price included, if any.
+     * @param maxPrice     The highest price included, if any.
+     * @param sort         price (cheapest first) or price_desc, price by default with a price parameter.
+     * @param limit        The maximum number of dishes returned, if any.
      * @return ResponseEntity containing the list of menu items if found, otherwise an error response.
      */
     @GetMapping("/category/{dishCategory}")
-    public ResponseEntity<?> getMenusByDishType(@PathVariable String dishCategory) {
+    public ResponseEntity<?> getMenusByDishType(@PathVariable String dishCategory,
+            @RequestParam(required = false) Integer minPrice, @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) Integer limit) {
+    	if (minPrice != null || maxPrice != null || sort != null || limit != null) {
+    		return getMenusByPrice(dishCategory, minPrice, maxPrice, sort, limit);
+    	}
     	logger.info("Received request to get list of dishes by category: {}", dishCategory);
+    	Timer.Sample sample = Timer.start(meterRegistry);
         try{
         	// Attempt to fetch the list of menu items from the service layer based on category
             List<MenuItem> menuItems = service.getMenus(dishCategory);
-            logger.info("Successfully retrieved dishes for category {}: {}", dishCategory, menuItems);
+            sample.stop(menuTimer("get_menus", "success"));
+            logger.info("Successfully retrieved {} dishes for category {}", menuItems.size(), dishCategory);
             return new ResponseEntity<>(menuItems, HttpStatus.OK);
         }
         catch (MenuException e) {
         	// Log the error if no dishes are found for the specified category or any other issue occurs
+            sample.stop(menuTimer("get_menus", "not_found"));
             logger.error("Error retrieving dishes for category {}: {}", dishCategory, e.getMessage());
             return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
         
         }
     
     }
-}
\ No newline at end of file
+    private ResponseEntity<?> getMenusByPrice(String dishCategory, Integer minPrice, Integer maxPrice, String sort, Integer limit) {
+    	logger.info("Received request to get dishes of category {} priced {} to {}, sorted by {}, limit {}", dishCategory,
+    			minPrice, maxPrice, sort, limit);
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	try {
+    		PriceOrder order = sort == null ? PriceOrder.PRICE : PriceOrder.parse(sort);
+    		List<MenuItem> menuItems = priceService.getMenus(dishCategory, minPrice, maxPrice, order,
+    				limit == null ? Integer.MAX_VALUE : positive(limit));
+    		sample.stop(menuTimer("get_menus_by_price", "success"));
+    		logger.info("Successfully retrieved {} dishes for category {}", menuItems.size(), dishCategory);
+    		return new ResponseEntity<>(menuItems, HttpStatus.OK);
+    	} catch (MenuException e) {
+    		sample.stop(menuTimer("get_menus_by_price", "not_found"));
+    		logger.error("Error retrieving dishes for category {}: {}", dishCategory, e.getMessage());
+    		return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 404), HttpStatus.NOT_FOUND);
+    	} catch (IllegalArgumentException e) {
+    		sample.stop(menuTimer("get_menus_by_price", "rejected"));
+    		logger.error("Rejected the price query on category {}: {}", dishCategory, e.getMessage());
+    		return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+    	}
+    }
+
+    /**
+     * Retrieves the cheapest dishes of every category, e.g. GET /dish/cheapest?limit=3
+     *
+     * @param limit The number of dishes per category, 1 by default.
+     * @return ResponseEntity containing the cheapest dishes keyed by category.
+     */
+    @GetMapping("/cheapest")
+    public ResponseEntity<?> getCheapest(@RequestParam(defaultValue = "1") int limit) {
+    	logger.info("Received request to get the {} cheapest dishes per category", limit);
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	try {
+    		Map<String, List<MenuItem>> cheapest = priceService.getCheapest(positive(limit));
+    		sample.stop(menuTimer("get_cheapest", "success"));
+    		return new ResponseEntity<>(cheapest, HttpStatus.OK);
+    	} catch (IllegalArgumentException e) {
+    		sample.stop(menuTimer("get_cheapest", "rejected"));
+    		return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+    	}
+    }
+
+    private static int positive(int limit) {
+    	if (limit <= 0) {
+    		throw new IllegalArgumentException("The limit must be positive");
+    	}
+    	return limit;
+    }
+
+    /**
+     * Returns the menu catalog feed used by other services to keep a local replica of the dishes.
+     *
+     * @param catalogId The catalogId of the snapshot held by the caller, if any.
+     * @return ResponseEntity containing the changes since that snapshot, or a full snapshot.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<MenuCatalogBean> getCatalog(@RequestParam(required = false) String catalogId) {
+    	logger.info("Received request for the menu catalog since {}", catalogId);
+        MenuCatalogBean catalog = catalogService.getCatalog(catalogId);
+        logger.info("Returning catalog version {} (full: {}) with {} dishes and {} removed", catalog.getVersion(),
+                catalog.isFull(), catalog.getDishes().size(), catalog.getRemoved().size());
+        return new ResponseEntity<>(catalog, HttpStatus.OK);
+    }
+    /**
+     * Retrieves several menu items in one request, e.g. GET /dish/batch?ids=1,2,3
+     *
+     * @param ids The IDs of the dishes to retrieve.
+     * @return ResponseEntity containing the dishes keyed by ID and the missing IDs.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getMenusByIds(@RequestParam List<Integer> ids) {
+    	logger.info("Received request to get {} dishes by ID", ids.size());
+        return getBatch(ids);
+    }
+
+    /**
+     * Same as GET /dish/batch, for lists of IDs too long to fit in a query string.
+     *
+     * @param ids The IDs of the dishes to retrieve, as a JSON array.
+     * @return ResponseEntity containing the dishes keyed by ID and the missing IDs.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> postMenusByIds(@RequestBody List<Integer> ids) {
+    	logger.info("Received batch request to get {} dishes by ID", ids.size());
+        return getBatch(ids);
+    }
+
+    /**
+     * Searches the dishes by name and description, e.g. GET /dish/search?q=paneer tikka
+     *
+     * @param q     The words to look for; the last one may be incomplete.
+     * @param limit The maximum number of dishes returned, menu.search.default-results by default.
+     * @return ResponseEntity containing the matching dishes, most relevant first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<MenuItem> menuItems = searchService.search(q, resultLimit(limit));
+            sample.stop(menuTimer("search", menuItems.isEmpty() ? "not_found" : "success"));
+            logger.info("Search for '{}' returned {} dishes", q, menuItems.size());
+            return new ResponseEntity<>(menuItems, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            sample.stop(menuTimer("search", "rejected"));
+            logger.error("Rejected the search for '{}': {}", q, e.getMessage());
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Suggests dishes while a customer types their name, e.g. GET /dish/suggest?prefix=pan
+     *
+     * @param prefix The beginning of a dish name.
+     * @param limit  The maximum number of suggestions, menu.search.default-results by default.
+     * @return ResponseEntity containing the suggested dishes.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<DishSuggestionBean> suggestions = searchService.suggest(prefix, resultLimit(limit));
+            sample.stop(menuTimer("suggest", suggestions.isEmpty() ? "not_found" : "success"));
+            logger.info("Suggestions for '{}': {} dishes", prefix, suggestions.size());
+            return new ResponseEntity<>(suggestions, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            sample.stop(menuTimer("suggest", "rejected"));
+            logger.error("Rejected the suggestions for '{}': {}", prefix, e.getMessage());
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private int resultLimit(Integer limit) {
+        if (limit == null) {
+            return defaultResults;
+        }
+        return Math.min(positive(limit), maxResults);
+    }
+
+    private ResponseEntity<?> getBatch(List<Integer> ids) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            DishBatchBean batch = service.getMenusByIds(ids);
+            sample.stop(menuTimer("get_menus_by_ids", "success"));
+            List<Integer> missing = batch.getMissing();
+            // A batch may hold hundreds of IDs: only the first missing ones are logged
+            logger.info("Successfully retrieved {} dishes, {} missing IDs: {}", batch.getDishes().size(), missing.size(),
+                    missing.size() > MISSING_IDS_LOGGED ? missing.subList(0, MISSING_IDS_LOGGED) + "..." : missing);
+            return new ResponseEntity<>(batch, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            sample.stop(menuTimer("get_menus_by_ids", "rejected"));
+            logger.error("Error retrieving dishes by ID: {}", e.getMessage());
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage(), 400), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private Timer menuTimer(String operation, String outcome) {
+        return meterRegistry.timer("menu.operation", "operation", operation, "outcome", outcome);
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * 
+ */
+package com.proj.foodservice.event;
+
+import java.util.List;
+
+import com.proj.foodservice.entity.MenuItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by MenuCatalogService every time a refresh of the catalog detects that dishes
+ * were added, changed or removed. In-memory structures derived from the menu listen to it
+ * to update themselves incrementally instead of reloading the whole menu.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuChangedEvent {
+	private final long version;             // The catalog version that introduced the change
+	private final List<MenuItem> changed;   // Dishes added or changed, with their new values
+	private final List<MenuItem> removed;   // Dishes that no longer exist, with their last known values
+}
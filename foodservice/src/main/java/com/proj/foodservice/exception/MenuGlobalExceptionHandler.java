@@ -73,5 +73,21 @@ public class MenuGlobalExceptionHandler {
         // Return a ResponseEntity containing the map of validation errors and HTTP status BAD_REQUEST
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
-}
 
+    /**
+     * Handles exceptions of type ServiceUnavailableException.
+     * 
+     * This method captures the requests that waited too long for an identical request in flight
+     * (see SingleFlight) and returns a ResponseEntity containing an ErrorResponse object with a
+     * 503 SERVICE UNAVAILABLE status, so that the client retries later.
+     * 
+     * @param ex the ServiceUnavailableException thrown in the application
+     * @return ResponseEntity<ErrorResponse> - Response containing the error message and HTTP 503 status
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        logger.error("ServiceUnavailableException occurred: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(ex.getMessage(), 503);
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,19 @@
+package com.proj.foodservice.exception;
+
+/**
+ * ServiceUnavailableException is thrown when a request can't be answered in time because the
+ * data it needs is still being loaded by another request (see SingleFlight).
+ *
+ * It is unchecked, and answered with 503 by MenuGlobalExceptionHandler: the client may retry.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+	/**
+	 * Constructs a new ServiceUnavailableException with the specified detail message.
+	 *
+	 * @param message the detail message that explains the reason for the exception
+	 */
+	public ServiceUnavailableException(String message) {
+		super(message);
+	}
+}
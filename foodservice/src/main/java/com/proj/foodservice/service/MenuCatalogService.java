@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package com.proj.foodservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.proj.foodservice.beans.DishPriceBean;
+import com.proj.foodservice.beans.MenuCatalogBean;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+import com.proj.foodservice.repository.MenuItemRepository;
+
+/**
+ * Service that keeps a versioned snapshot of the whole menu and serves it as a feed to
+ * other services, so that they can hold a local replica of the dishes and their prices.
+ *
+ * The menu is reloaded from the database on a fixed delay (menu.catalog.refresh-interval).
+ * Every reload that finds added, changed or removed dishes bumps the catalog version,
+ * records the affected dish IDs in a bounded history, evicts those dishes from the menu
+ * cache and publishes a MenuChangedEvent.
+ *
+ * Every snapshot is identified by a catalogId, a hash of its dishes: the instances of the
+ * service that loaded the same menu from the shared database give it the same catalogId,
+ * whatever their own version numbers. Clients ask for the changes since the catalogId they
+ * hold, from any instance, and get an empty delta when it is the current one, the changes
+ * since then when the instance went through that snapshot within its history, or a full
+ * snapshot when it did not (too old, or loaded by another instance only).
+ *
+ * Annotations:
+ * - @Service: Indicates that this class is a service component in the Spring context.
+ * - @Scheduled: Triggers the periodic reload of the catalog.
+ */
+@Service
+public class MenuCatalogService {
+
+	// Repository instance to interact with the database
+	@Autowired
+	private MenuItemRepository repository;
+
+	// Menu service, used to invalidate cached dishes that changed
+	@Autowired
+	private MenuItemService menuItemService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	// Number of versions kept in the change history before clients fall back to a full snapshot
+	@Value("${menu.catalog.history-size:100}")
+	private int historySize;
+
+	// Logger instance for logging information and errors
+	private static final Logger logger = LoggerFactory.getLogger(MenuCatalogService.class);
+
+	private Map<Integer, MenuItem> dishes = Collections.emptyMap();
+	private String catalogId;
+	private long version = 0; // Local to this instance
+	private final NavigableMap<Long, Set<Integer>> history = new TreeMap<>();
+	private final Map<String, Long> versions = new HashMap<>(); // catalogId -> latest version with that snapshot
+
+	/**
+	 * Reloads the menu from the database and records the differences with the previous snapshot.
+	 */
+	@Scheduled(initialDelayString = "0", fixedDelayString = "${menu.catalog.refresh-interval:30000}")
+	public void refresh() {
+		List<MenuItem> loaded = repository.findAll();
+		Map<Integer, MenuItem> current = new HashMap<>();
+		loaded.forEach(item -> current.put(item.getDishId(), item));
+
+		MenuChangedEvent event;
+		synchronized (this) {
+			List<MenuItem> changed = new ArrayList<>();
+			List<MenuItem> removed = new ArrayList<>();
+			current.forEach((id, item) -> {
+				if (!Objects.equals(dishes.get(id), item)) {
+					changed.add(item);
+				}
+			});
+			dishes.forEach((id, item) -> {
+				if (!current.containsKey(id)) {
+					removed.add(item);
+				}
+			});
+			if (changed.isEmpty() && removed.isEmpty() && version > 0) {
+				return;
+			}
+
+			boolean initialLoad = version == 0;
+			Map<Integer, MenuItem> previous = dishes;
+			version++;
+			dishes = Collections.unmodifiableMap(current);
+			catalogId = catalogId(current);
+			versions.put(catalogId, version);
+			if (!initialLoad) {
+				Set<Integer> ids = new TreeSet<>();
+				changed.forEach(item -> ids.add(item.getDishId()));
+				removed.forEach(item -> ids.add(item.getDishId()));
+				history.put(version, ids);
+				while (history.size() > historySize) {
+					history.pollFirstEntry();
+				}
+				long oldest = history.firstKey() - 1;
+				versions.values().removeIf(known -> known < oldest);
+			}
+			logger.info("Menu catalog moved to version {}: {} dishes changed, {} removed", version, changed.size(), removed.size());
+			event = new MenuChangedEvent(version, changed, removed);
+			if (!initialLoad) {
+				changed.forEach(item -> {
+					menuItemService.evictDish(item);
+					// A dish moved to another category must also leave the cached list of its old one
+					MenuItem before = previous.get(item.getDishId());
+					if (before != null && !Objects.equals(before.getDishCategory(), item.getDishCategory())) {
+						menuItemService.evictCategory(before.getDishCategory());
+					}
+				});
+				removed.forEach(menuItemService::evictDish);
+			}
+		}
+		eventPublisher.publishEvent(event);
+	}
+
+	/**
+	 * Returns the changes of the catalog since the snapshot held by the client.
+	 *
+	 * @param clientCatalogId The catalogId of the snapshot held by the client, or null when it holds nothing.
+	 * @return A delta since that snapshot, or a full snapshot when no delta can be built.
+	 */
+	public synchronized MenuCatalogBean getCatalog(String clientCatalogId) {
+		Long sinceVersion = clientCatalogId == null ? null : versions.get(clientCatalogId);
+		boolean deltaPossible = sinceVersion != null
+				&& (sinceVersion == version || (!history.isEmpty() && sinceVersion >= history.firstKey() - 1));
+		if (!deltaPossible) {
+			List<DishPriceBean> all = new ArrayList<>(dishes.size());
+			dishes.values().forEach(item -> all.add(toBean(item)));
+			return new MenuCatalogBean(catalogId, version, true, all, Collections.emptyList());
+		}
+
+		Set<Integer> ids = new TreeSet<>();
+		history.tailMap(sinceVersion, false).values().forEach(ids::addAll);
+		List<DishPriceBean> changed = new ArrayList<>();
+		List<Integer> removed = new ArrayList<>();
+		for (Integer id : ids) {
+			MenuItem item = dishes.get(id);
+			if (item != null) {
+				changed.add(toBean(item));
+			} else {
+				removed.add(id);
+			}
+		}
+		return new MenuCatalogBean(catalogId, version, false, changed, removed);
+	}
+
+	/**
+	 * @return The dishes of the latest snapshot keyed by dishId, never modified in place.
+	 */
+	public synchronized Map<Integer, MenuItem> getDishes() {
+		return dishes;
+	}
+
+	/**
+	 * @return A hash of the dishes, the same on every instance that loaded the same menu.
+	 */
+	private static String catalogId(Map<Integer, MenuItem> dishes) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		new TreeMap<>(dishes).values().forEach(item -> digest.update((item.getDishId() + "\u0000" + item.getDishCategory()
+				+ "\u0000" + item.getDishName() + "\u0000" + item.getUnitPrice() + "\u0000" + item.getDishDesc() + "\n")
+				.getBytes(StandardCharsets.UTF_8)));
+		return HexFormat.of().formatHex(digest.digest(), 0, 16);
+	}
+
+	private static DishPriceBean toBean(MenuItem item) {
+		return new DishPriceBean(item.getDishId(), item.getUnitPrice());
+	}
+}
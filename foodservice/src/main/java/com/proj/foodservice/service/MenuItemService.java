@@ -3,16 +3,38 @@
  */
 package com.proj.foodservice.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proj.foodservice.beans.DishBatchBean;
+import com.proj.foodservice.config.MenuCacheConfig;
 import com.proj.foodservice.entity.MenuItem;
 import com.proj.foodservice.exception.MenuException;
 import com.proj.foodservice.repository.MenuItemRepository;
+import com.proj.foodservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Service class that provides business logic related to menu items (dishes).
@@ -22,6 +44,19 @@ import com.proj.foodservice.repository.MenuItemRepository;
  * Annotations:
  * - @Service: Indicates that this class is a service component in the Spring context.
  *   It is used to hold the business logic of the application.
+ * - @Cacheable / @CacheEvict: The read methods are served from the in-process menu caches
+ *   configured in MenuCacheConfig, so the database is only queried on a cache miss.
+ *   Failed lookups (MenuException) are never cached.
+ * - @Transactional(readOnly = true): The read methods run on the read replica pool
+ *   (see DataSourceConfig).
+ *
+ * Concurrent cache misses for the same dish or category are coalesced by a SingleFlight:
+ * one caller queries the database and the others wait for its result, at most
+ * menu.singleflight.max-wait, after which they are answered 503 (ServiceUnavailableException).
+ * The callers are counted in singleflight.requests, tagged role=leader|waiter.
+ *
+ * The database queries (i.e. the cache misses) are timed as menu.db.query, tagged with
+ * operation=get_menus|get_menu_by_id|get_menus_by_ids and outcome=success|not_found|error.
  */
 
 @Service
@@ -30,9 +65,28 @@ public class MenuItemService {
 	// Repository instance to interact with the database
     @Autowired
     private MenuItemRepository repository;
+
+    // Cache manager, used directly by the batch lookup to read and fill the dish cache
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Coalesces concurrent identical queries on a cache miss
+    @Autowired
+    private SingleFlight menuSingleFlight;
+
+    // Registry of the query timers
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Maximum number of IDs accepted by a single batch lookup
+    @Value("${menu.batch.max-ids:500}")
+    private int batchMaxIds;
     
     // Logger instance for logging information and errors
 	private static final Logger logger = LoggerFactory.getLogger(MenuItemService.class);
+
+	// Categories are matched ignoring case by the database (MySQL collation), so they are cached by their lower case name
+	private static final String CATEGORY_KEY = "#dishType.toLowerCase(T(java.util.Locale).ROOT)";
 	
 	/**
      * Retrieves a list of menu items based on the dish category.
@@ -41,12 +95,16 @@ public class MenuItemService {
      * @return List of MenuItem objects that belong to the specified category.
      * @throws MenuException If no dishes are found for the given category.
      */
+    @Cacheable(cacheNames = MenuCacheConfig.CATEGORY_CACHE, key = CATEGORY_KEY)
+    @Transactional(readOnly = true)
     public List<MenuItem> getMenus(String dishType) throws MenuException {
     	logger.info("Attempting to get list of dishes for category: {}", dishType);
 
-        // Fetches the list of menu items from the repository based on the dish category
-        List<MenuItem> value = repository.findByDishCategory(dishType);
-        logger.info("Fetched list of dishes: {}", value);
+        // Fetches the list of menu items from the repository based on the dish category,
+        // sharing the query with concurrent requests for the same category
+        List<MenuItem> value = menuSingleFlight.execute("category:" + dishType.toLowerCase(Locale.ROOT),
+        		() -> timeQuery("get_menus", () -> repository.findByDishCategory(dishType)));
+        logger.info("Fetched {} dishes for category {}", value.size(), dishType);
         
         // Checks if the list is empty or null and throws an exception if so
         if(value.isEmpty()||value==null){
@@ -54,7 +112,7 @@ public class MenuItemService {
             throw new MenuException("No Dish avialbe");
         }
         
-        logger.info("Returning list of dishes for category {}: {}", dishType, value);
+        logger.info("Returning {} dishes for category {}", value.size(), dishType);
         return value;
     }
     /**
@@ -64,9 +122,112 @@ public class MenuItemService {
      * @return The MenuItem object with the specified ID.
      * @throws MenuException If no menu item is found with the given ID.
      */
+    @Cacheable(cacheNames = MenuCacheConfig.DISH_CACHE)
+    @Transactional(readOnly = true)
     public MenuItem getMenuById(int id) throws MenuException {
     	logger.info("Attempting to get dish by ID: {}", id);
     	// Fetches the menu item by its ID from the repository, throws exception if not found
-        return repository.findById(id).orElseThrow(() -> new MenuException("Dish not found"));
+        Optional<MenuItem> value = menuSingleFlight.execute("dish:" + id,
+        		() -> timeQuery("get_menu_by_id", () -> repository.findById(id)));
+        return value.orElseThrow(() -> new MenuException("Dish not found"));
+    }
+
+    /**
+     * Retrieves several menu items at once. Dishes already in the dish cache are served from it,
+     * all the others are fetched with a single query and added to the cache.
+     *
+     * @param ids The IDs of the dishes to retrieve, duplicates are ignored.
+     * @return The dishes found keyed by ID, and the IDs for which no dish exists.
+     * @throws IllegalArgumentException If an ID is null (e.g. ?ids=1,,2) or more than menu.batch.max-ids
+     *         distinct IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public DishBatchBean getMenusByIds(Collection<Integer> ids) {
+    	Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+    	logger.info("Attempting to get {} dishes by ID", distinctIds.size());
+    	if (distinctIds.contains(null)) {
+    		throw new IllegalArgumentException("Dish IDs must not be empty or null");
+    	}
+    	if (distinctIds.size() > batchMaxIds) {
+    		throw new IllegalArgumentException("At most " + batchMaxIds + " dishes can be requested at once");
+    	}
+
+    	Cache dishCache = cacheManager.getCache(MenuCacheConfig.DISH_CACHE);
+    	Map<Integer, MenuItem> found = new LinkedHashMap<>();
+    	List<Integer> toLoad = new ArrayList<>();
+    	for (Integer id : distinctIds) {
+    		MenuItem cached = dishCache.get(id, MenuItem.class);
+    		if (cached != null) {
+    			found.put(id, cached);
+    		} else {
+    			toLoad.add(id);
+    		}
+    	}
+    	if (!toLoad.isEmpty()) {
+    		// Single round trip for every dish that was not cached
+    		for (MenuItem item : timeQuery("get_menus_by_ids", () -> repository.findAllById(toLoad))) {
+    			dishCache.put(item.getDishId(), item);
+    			found.put(item.getDishId(), item);
+    		}
+    	}
+
+    	List<Integer> missing = new ArrayList<>();
+    	for (Integer id : distinctIds) {
+    		if (!found.containsKey(id)) {
+    			missing.add(id);
+    		}
+    	}
+    	logger.info("Found {} dishes ({} loaded from the database), {} missing", found.size(), toLoad.size() - missing.size(), missing.size());
+    	return new DishBatchBean(found, missing);
+    }
+
+    /**
+     * Runs a database query and times it as menu.db.query; an empty result is a not_found.
+     */
+    private <T> T timeQuery(String operation, Supplier<T> query) {
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	String outcome = "error";
+    	try {
+    		T result = query.get();
+    		boolean empty = (result instanceof Collection<?> items && items.isEmpty())
+    				|| (result instanceof Optional<?> item && item.isEmpty());
+    		outcome = empty ? "not_found" : "success";
+    		return result;
+    	} finally {
+    		sample.stop(meterRegistry.timer("menu.db.query", "operation", operation, "outcome", outcome));
+    	}
+    }
+
+    /**
+     * Invalidates the cached copy of a dish together with the cached list of its category.
+     * Must be called whenever a dish is created, updated or removed.
+     *
+     * @param menuItem The dish that changed.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = MenuCacheConfig.DISH_CACHE, key = "#menuItem.dishId"),
+            @CacheEvict(cacheNames = MenuCacheConfig.CATEGORY_CACHE, key = "#menuItem.dishCategory.toLowerCase(T(java.util.Locale).ROOT)") })
+    public void evictDish(MenuItem menuItem) {
+    	logger.info("Evicting dish {} of category {} from the menu cache", menuItem.getDishId(), menuItem.getDishCategory());
+    }
+
+    /**
+     * Invalidates the cached list of dishes of a single category.
+     *
+     * @param dishType The category to evict.
+     */
+    @CacheEvict(cacheNames = MenuCacheConfig.CATEGORY_CACHE, key = CATEGORY_KEY)
+    public void evictCategory(String dishType) {
+    	logger.info("Evicting category {} from the menu cache", dishType);
+    }
+
+    /**
+     * Invalidates every cached dish and category, e.g. after a bulk change of the menu.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = MenuCacheConfig.DISH_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = MenuCacheConfig.CATEGORY_CACHE, allEntries = true) })
+    public void evictAll() {
+    	logger.info("Evicting all entries from the menu cache");
     }
 }
@@ -0,0 +1,204 @@
+package com.proj.foodservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+import com.proj.foodservice.exception.MenuException;
+
+/**
+ * Service that answers price-range and price-sorted menu queries from per-category indexes
+ * kept in memory, without querying the database.
+ *
+ * Each category is indexed by three parallel arrays sorted by (unitPrice, dishId): the prices
+ * as an int[], the dish IDs as an int[] and the dishes themselves. A price range is located
+ * with two binary searches on the price array, and only the dishes returned are read, so a
+ * query costs O(log n + limit) whatever the size of the category.
+ *
+ * Categories are matched regardless of case, like the findByDishCategory lookup of MySQL:
+ * the indexes are keyed by the lower-case category, /dish/category/main finds the Main dishes
+ * with or without a price range.
+ *
+ * The indexes are immutable and replaced as a whole, so readers never lock. They are updated
+ * from the MenuChangedEvents of MenuCatalogService: only the categories holding a changed or
+ * removed dish are rebuilt, from their previous index and the changes.
+ *
+ * Annotations:
+ * - @Service: Indicates that this class is a service component in the Spring context.
+ * - @EventListener: Applies the menu changes to the indexes.
+ */
+@Service
+public class MenuPriceService {
+
+	/**
+	 * Order of the dishes returned.
+	 */
+	public enum PriceOrder {
+		PRICE, PRICE_DESC;
+
+		/**
+		 * @param sort price or price_desc, in any case
+		 * @throws IllegalArgumentException for any other value
+		 */
+		public static PriceOrder parse(String sort) {
+			for (PriceOrder order : values()) {
+				if (order.name().equalsIgnoreCase(sort)) {
+					return order;
+				}
+			}
+			throw new IllegalArgumentException("sort must be price or price_desc");
+		}
+	}
+
+	/**
+	 * The dishes of a category sorted by (unitPrice, dishId), in parallel arrays.
+	 */
+	record CategoryIndex(String category, int[] prices, int[] dishIds, MenuItem[] items) {
+
+		static CategoryIndex of(String category, List<MenuItem> items) {
+			List<MenuItem> sorted = new ArrayList<>(items);
+			sorted.sort(Comparator.comparing(MenuItem::getUnitPrice).thenComparing(MenuItem::getDishId));
+			int[] prices = new int[sorted.size()];
+			int[] dishIds = new int[sorted.size()];
+			for (int i = 0; i < sorted.size(); i++) {
+				prices[i] = sorted.get(i).getUnitPrice();
+				dishIds[i] = sorted.get(i).getDishId();
+			}
+			return new CategoryIndex(category, prices, dishIds, sorted.toArray(new MenuItem[0]));
+		}
+
+		/**
+		 * @return the position of the first dish priced at least price
+		 */
+		int lowerBound(int price) {
+			int low = 0;
+			int high = prices.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (prices[mid] < price) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	// Logger instance for logging information and errors
+	private static final Logger logger = LoggerFactory.getLogger(MenuPriceService.class);
+
+	private final Map<String, CategoryIndex> categories = new ConcurrentHashMap<>(); // key(category) -> index
+
+	/**
+	 * Rebuilds the indexes of the categories affected by a catalog refresh.
+	 */
+	@EventListener
+	public synchronized void onMenuChanged(MenuChangedEvent event) {
+		Set<Integer> outdated = new HashSet<>();
+		Set<String> affected = new HashSet<>();
+		for (MenuItem item : event.getChanged()) {
+			outdated.add(item.getDishId());
+			affected.add(key(item.getDishCategory()));
+		}
+		for (MenuItem item : event.getRemoved()) {
+			outdated.add(item.getDishId());
+			affected.add(key(item.getDishCategory()));
+		}
+		// A dish moved to another category must also leave its previous one
+		categories.values().forEach(index -> {
+			for (int dishId : index.dishIds()) {
+				if (outdated.contains(dishId)) {
+					affected.add(key(index.category()));
+					break;
+				}
+			}
+		});
+
+		Map<String, List<MenuItem>> rebuilt = new LinkedHashMap<>();
+		for (String category : affected) {
+			List<MenuItem> items = new ArrayList<>();
+			CategoryIndex previous = categories.get(category);
+			if (previous != null) {
+				for (MenuItem item : previous.items()) {
+					if (!outdated.contains(item.getDishId())) {
+						items.add(item);
+					}
+				}
+			}
+			rebuilt.put(category, items);
+		}
+		event.getChanged().forEach(item -> rebuilt.get(key(item.getDishCategory())).add(item));
+		rebuilt.forEach((category, items) -> {
+			if (items.isEmpty()) {
+				categories.remove(category);
+			} else {
+				// Named after its first dish, i.e. as before the change unless all its dishes changed
+				categories.put(category, CategoryIndex.of(items.get(0).getDishCategory(), items));
+			}
+		});
+		logger.info("Menu price index at catalog version {}: {} categories rebuilt", event.getVersion(), rebuilt.size());
+	}
+
+	/**
+	 * Returns the dishes of a category within a price range.
+	 *
+	 * @param category The category of the dishes, in any case.
+	 * @param minPrice The lowest price included, or null for no lower bound.
+	 * @param maxPrice The highest price included, or null for no upper bound.
+	 * @param order    The order of the dishes returned.
+	 * @param limit    The maximum number of dishes returned.
+	 * @return The matching dishes, possibly none.
+	 * @throws MenuException If the category has no dishes.
+	 */
+	public List<MenuItem> getMenus(String category, Integer minPrice, Integer maxPrice, PriceOrder order, int limit)
+			throws MenuException {
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+			throw new IllegalArgumentException("minPrice can't be greater than maxPrice");
+		}
+		CategoryIndex index = categories.get(key(category));
+		if (index == null) {
+			throw new MenuException("No Dish avialbe");
+		}
+		int from = minPrice == null ? 0 : index.lowerBound(minPrice);
+		int to = maxPrice == null || maxPrice == Integer.MAX_VALUE ? index.prices().length : index.lowerBound(maxPrice + 1);
+		int count = Math.max(0, Math.min(limit, to - from));
+		List<MenuItem> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			items.add(index.items()[order == PriceOrder.PRICE ? from + i : to - 1 - i]);
+		}
+		return items;
+	}
+
+	/**
+	 * Returns the cheapest dishes of every category.
+	 *
+	 * @param limit The number of dishes per category.
+	 * @return The cheapest dishes, cheapest first, keyed by category in alphabetical order.
+	 */
+	public Map<String, List<MenuItem>> getCheapest(int limit) {
+		Map<String, List<MenuItem>> cheapest = new TreeMap<>();
+		categories.values().forEach(index -> cheapest.put(index.category(),
+				Arrays.asList(Arrays.copyOf(index.items(), Math.min(limit, index.items().length)))));
+		return cheapest;
+	}
+
+	private static String key(String category) {
+		return category.toLowerCase(Locale.ROOT);
+	}
+}
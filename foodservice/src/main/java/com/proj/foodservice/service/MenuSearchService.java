@@ -0,0 +1,310 @@
+package com.proj.foodservice.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.proj.foodservice.beans.DishSuggestionBean;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+import com.proj.foodservice.util.TermTrie;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service that answers full-text searches and autocompletion over the menu from an in-memory
+ * inverted index of the dish names and descriptions, without querying the database.
+ *
+ * Text is tokenized into lowercase terms without accents, split on anything that is neither a
+ * letter nor a digit; a few English stop words are left out. Each term maps to the dishes
+ * containing it and how often it appears in their name and description. A TermTrie of the
+ * terms expands a partially typed word into the terms starting with it.
+ *
+ * - search: Ranks the dishes matching any word of the query with BM25, a name match weighing
+ *   NAME_WEIGHT times a description match, multiplied by the share of the query words matched.
+ *   The last word also matches as a prefix, at a lower weight, so results follow the typing.
+ * - suggest: Dishes whose name contains every complete word typed and a word starting with the
+ *   last one, names starting with the prefix first, then the shortest names.
+ *
+ * The index is updated incrementally from the MenuChangedEvents of MenuCatalogService (the
+ * first one holds the whole menu). Updates take a write lock, searches a read lock.
+ *
+ * Annotations:
+ * - @Service: Indicates that this class is a service component in the Spring context.
+ * - @EventListener: Applies the menu changes to the index.
+ *
+ * The size of the index is published as menu.search.dishes and menu.search.terms.
+ */
+@Service
+public class MenuSearchService {
+
+	static final int NAME_WEIGHT = 3; // A term in the name counts as much as 3 in the description
+	static final double PREFIX_WEIGHT = 0.8; // Weight of a term matched by prefix only
+	static final double K1 = 1.2; // BM25 term frequency saturation
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+	private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "with", "in", "on", "or", "to");
+
+	// Registry of the index size gauges
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	// Number of terms a partially typed word is expanded into
+	@Value("${menu.search.prefix-expansions:50}")
+	private int prefixExpansions;
+
+	// Logger instance for logging information and errors
+	private static final Logger logger = LoggerFactory.getLogger(MenuSearchService.class);
+
+	/**
+	 * An indexed dish, its name as terms separated by spaces and the frequencies of its terms,
+	 * { in name, in description }.
+	 */
+	private record IndexedDish(MenuItem item, String normalizedName, Map<String, int[]> termFrequencies) {
+	}
+
+	private record ScoredDish(double score, MenuItem item) {
+	}
+
+	private final Map<String, Map<Integer, int[]>> postings = new HashMap<>(); // term -> dishId -> frequencies
+	private final Map<Integer, IndexedDish> dishes = new HashMap<>();
+	private final TermTrie terms = new TermTrie();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	@PostConstruct
+	void registerMetrics() {
+		Gauge.builder("menu.search.dishes", this, service -> service.read(service.dishes::size)).register(meterRegistry);
+		Gauge.builder("menu.search.terms", this, service -> service.read(service.terms::size)).register(meterRegistry);
+	}
+
+	/**
+	 * Applies the dishes added, changed and removed by a catalog refresh to the index.
+	 */
+	@EventListener
+	public void onMenuChanged(MenuChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			event.getRemoved().forEach(item -> remove(item.getDishId()));
+			event.getChanged().forEach(item -> {
+				remove(item.getDishId());
+				add(item);
+			});
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Menu search index at catalog version {}: {} dishes indexed, {} removed", event.getVersion(),
+				event.getChanged().size(), event.getRemoved().size());
+	}
+
+	/**
+	 * Searches the dishes by name and description.
+	 *
+	 * @param query the words to look for; the last one may be incomplete
+	 * @param limit maximum number of dishes returned
+	 * @return the matching dishes, most relevant first
+	 * @throws IllegalArgumentException if the query holds no searchable word
+	 */
+	public List<MenuItem> search(String query, int limit) {
+		List<String> words = queryWords(query);
+		boolean lastIsPartial = !Character.isWhitespace(query.charAt(query.length() - 1));
+		lock.readLock().lock();
+		try {
+			int total = dishes.size();
+			// dishId -> { score of the previous words, words matched, current word, best score for it }
+			Map<Integer, double[]> scores = new HashMap<>();
+			for (int w = 0; w < words.size(); w++) {
+				String word = words.get(w);
+				score(word, w, 1.0, total, scores);
+				if (w == words.size() - 1 && lastIsPartial) {
+					for (String term : terms.termsWithPrefix(word, prefixExpansions)) {
+						if (!term.equals(word)) {
+							score(term, w, PREFIX_WEIGHT, total, scores);
+						}
+					}
+				}
+			}
+			// Only the best match of each word counts, scaled by the share of the words matched
+			List<ScoredDish> matches = new ArrayList<>(scores.size());
+			scores.forEach((dishId, score) -> matches.add(
+					new ScoredDish((score[0] + score[3]) * score[1] / words.size(), dishes.get(dishId).item())));
+			List<ScoredDish> ranked = top(matches, limit, Comparator.comparingDouble((ScoredDish dish) -> -dish.score())
+					.thenComparing(dish -> dish.item().getDishName())
+					.thenComparing(dish -> dish.item().getDishId()));
+			return ranked.stream().map(ScoredDish::item).toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Suggests dishes for what a customer is typing.
+	 *
+	 * @param prefix the beginning of a dish name, e.g. "paneer ti"
+	 * @param limit  maximum number of suggestions
+	 * @return the dishes whose name matches the prefix
+	 * @throws IllegalArgumentException if the prefix holds no searchable word
+	 */
+	public List<DishSuggestionBean> suggest(String prefix, int limit) {
+		List<String> words = queryWords(prefix);
+		boolean lastIsPartial = !Character.isWhitespace(prefix.charAt(prefix.length() - 1));
+		String last = words.get(words.size() - 1);
+		List<String> complete = lastIsPartial ? words.subList(0, words.size() - 1) : words;
+		String normalizedPrefix = String.join(" ", words);
+		lock.readLock().lock();
+		try {
+			Set<Integer> candidates = new LinkedHashSet<>();
+			List<String> lastTerms = lastIsPartial ? terms.termsWithPrefix(last, prefixExpansions) : List.of(last);
+			for (String term : lastTerms) {
+				postings.getOrDefault(term, Map.of()).forEach((dishId, frequencies) -> {
+					if (frequencies[0] > 0) {
+						candidates.add(dishId);
+					}
+				});
+			}
+			List<IndexedDish> matches = new ArrayList<>();
+			for (Integer dishId : candidates) {
+				IndexedDish dish = dishes.get(dishId);
+				if (complete.stream().allMatch(word -> dish.termFrequencies().getOrDefault(word, new int[2])[0] > 0)) {
+					matches.add(dish);
+				}
+			}
+			List<IndexedDish> ranked = top(matches, limit,
+					Comparator.<IndexedDish>comparingInt(dish -> dish.normalizedName().startsWith(normalizedPrefix) ? 0 : 1)
+							.thenComparingInt(dish -> dish.item().getDishName().length())
+							.thenComparing(dish -> dish.item().getDishName())
+							.thenComparing(dish -> dish.item().getDishId()));
+			return ranked.stream().map(IndexedDish::item)
+					.map(item -> new DishSuggestionBean(item.getDishId(), item.getDishName(), item.getDishCategory()))
+					.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the searchable terms of a text, in order, repeated terms included
+	 */
+	static List<String> tokenize(String text) {
+		if (text == null) {
+			return List.of();
+		}
+		String normalized = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		List<String> tokens = new ArrayList<>();
+		for (String token : SEPARATORS.split(normalized)) {
+			if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * @return the first limit elements in the given order, selected with a heap of limit
+	 *         elements instead of sorting them all
+	 */
+	private static <T> List<T> top(Collection<T> elements, int limit, Comparator<T> order) {
+		PriorityQueue<T> worstFirst = new PriorityQueue<>(limit, order.reversed());
+		for (T element : elements) {
+			if (worstFirst.size() < limit) {
+				worstFirst.offer(element);
+			} else if (order.compare(element, worstFirst.peek()) < 0) {
+				worstFirst.poll();
+				worstFirst.offer(element);
+			}
+		}
+		List<T> top = new ArrayList<>(worstFirst);
+		top.sort(order);
+		return top;
+	}
+
+	private static List<String> queryWords(String query) {
+		List<String> words = query == null ? List.of() : List.copyOf(new LinkedHashSet<>(tokenize(query)));
+		if (words.isEmpty()) {
+			throw new IllegalArgumentException("The query must contain a word to search for");
+		}
+		return words;
+	}
+
+	// Adds the BM25 score of the term, multiplied by weight, as a match of the word-th query word
+	private void score(String term, int word, double weight, int total, Map<Integer, double[]> scores) {
+		Map<Integer, int[]> matching = postings.get(term);
+		if (matching == null) {
+			return;
+		}
+		double idf = Math.log(1 + (total - matching.size() + 0.5) / (matching.size() + 0.5));
+		matching.forEach((dishId, frequencies) -> {
+			double frequency = NAME_WEIGHT * frequencies[0] + frequencies[1];
+			double score = weight * idf * frequency * (K1 + 1) / (frequency + K1);
+			double[] sum = scores.computeIfAbsent(dishId, id -> new double[] { 0, 0, -1, 0 });
+			if (sum[2] != word) {
+				// First match of this word: the best match of the previous word is final
+				sum[0] += sum[3];
+				sum[1]++;
+				sum[2] = word;
+				sum[3] = score;
+			} else if (score > sum[3]) {
+				sum[3] = score;
+			}
+		});
+	}
+
+	private void add(MenuItem item) {
+		Map<String, int[]> frequencies = new LinkedHashMap<>();
+		List<String> name = tokenize(item.getDishName());
+		name.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+		tokenize(item.getDishDesc()).forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+		frequencies.forEach((term, frequency) -> {
+			postings.computeIfAbsent(term, t -> new HashMap<>()).put(item.getDishId(), frequency);
+			terms.add(term);
+		});
+		dishes.put(item.getDishId(), new IndexedDish(item, String.join(" ", name), frequencies));
+	}
+
+	private void remove(Integer dishId) {
+		IndexedDish dish = dishes.remove(dishId);
+		if (dish == null) {
+			return;
+		}
+		dish.termFrequencies().keySet().forEach(term -> {
+			Map<Integer, int[]> matching = postings.get(term);
+			matching.remove(dishId);
+			if (matching.isEmpty()) {
+				postings.remove(term);
+			}
+			terms.remove(term);
+		});
+	}
+
+	private <T> T read(Supplier<T> reader) {
+		lock.readLock().lock();
+		try {
+			return reader.get();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+}
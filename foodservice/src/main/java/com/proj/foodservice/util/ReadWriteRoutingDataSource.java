@@ -0,0 +1,49 @@
+package com.proj.foodservice.util;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource that sends the connections of read-only transactions
+ * (@Transactional(readOnly = true)) to the replica pool and every other connection to the
+ * primary pool.
+ *
+ * The role is chosen when the connection is obtained, so this DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy: the physical connection is then only obtained at the first
+ * statement, once the transaction is known to be read-only (see DataSourceConfig).
+ *
+ * The connections obtained are counted as datasource.routing, tagged with role=primary|replica.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public enum Role {
+		PRIMARY, REPLICA
+	}
+
+	private final Counter primaryConnections;
+	private final Counter replicaConnections;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+		setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		primaryConnections = meterRegistry.counter("datasource.routing", "role", "primary");
+		replicaConnections = meterRegistry.counter("datasource.routing", "role", "replica");
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			replicaConnections.increment();
+			return Role.REPLICA;
+		}
+		primaryConnections.increment();
+		return Role.PRIMARY;
+	}
+}
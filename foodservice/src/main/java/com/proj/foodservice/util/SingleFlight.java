@@ -0,0 +1,115 @@
+package com.proj.foodservice.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.proj.foodservice.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads: while a load for a key is in flight, other callers asking
+ * for the same key wait for its result instead of starting their own load. The first caller
+ * (the leader) runs the load on its own thread; all waiters get the same result or exception.
+ *
+ * Waiting is bounded by maxWait: a waiter whose leader takes longer gives up with a
+ * ServiceUnavailableException (answered 503), so a stuck query holds one thread, not every
+ * caller of the key, and the callers do not pile more queries onto a slow database.
+ *
+ * Calls are counted in singleflight.requests, tagged with the name of the instance,
+ * role=leader|waiter and outcome=success|error|timeout; the waiters are the loads saved.
+ */
+public class SingleFlight {
+
+	/**
+	 * A load that may throw a checked exception of type E.
+	 */
+	@FunctionalInterface
+	public interface Loader<V, E extends Exception> {
+		V load() throws E;
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+	private final String name;
+	private final long maxWaitNanos;
+	private final MeterRegistry meterRegistry;
+	private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * @param name          name of the instance, used in the metrics
+	 * @param maxWait       maximum time a caller waits for the load of another caller
+	 * @param meterRegistry registry the counters are published to
+	 */
+	public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+		this.name = name;
+		this.maxWaitNanos = maxWait.toNanos();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Returns the result of the load in flight for the key, or runs the load if there is none.
+	 *
+	 * @param key    identifies the read; equal keys must mean identical reads
+	 * @param loader the load to run when no identical read is in flight
+	 * @return the result of the load
+	 * @throws E the exception thrown by the load
+	 * @throws ServiceUnavailableException if the load in flight takes longer than maxWait
+	 */
+	@SuppressWarnings("unchecked")
+	public <V, E extends Exception> V execute(Object key, Loader<V, E> loader) throws E {
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+		if (leader == null) {
+			String outcome = "error";
+			try {
+				V value = loader.load();
+				mine.complete(value);
+				outcome = "success";
+				return value;
+			} catch (Exception | Error e) {
+				mine.completeExceptionally(e);
+				throw e;
+			} finally {
+				inFlight.remove(key, mine);
+				count("leader", outcome);
+			}
+		}
+
+		try {
+			V value = (V) leader.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+			count("waiter", "success");
+			return value;
+		} catch (ExecutionException e) {
+			count("waiter", "error");
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw (E) cause; // The loaders of a key only throw E
+		} catch (TimeoutException e) {
+			count("waiter", "timeout");
+			logger.warn("{}: in-flight load of {} took more than {} ms", name, key, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+			throw new ServiceUnavailableException("The menu is busy, please retry");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			count("waiter", "timeout");
+			throw new ServiceUnavailableException("The menu is busy, please retry");
+		}
+	}
+
+	private void count(String role, String outcome) {
+		meterRegistry.counter("singleflight.requests", "name", name, "role", role, "outcome", outcome).increment();
+	}
+}
@@ -0,0 +1,104 @@
+package com.proj.foodservice.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prefix tree of the terms of an index, used to expand a prefix ("pan") into the terms that
+ * start with it ("paneer", "pancake"...). Each term carries a reference count, so that the
+ * same term added by several documents is removed only with the last one; empty branches are
+ * pruned on removal.
+ *
+ * Children are kept in sorted maps, so the terms under a prefix come out in alphabetical order.
+ * Not thread-safe: callers guard it with their own lock.
+ */
+public class TermTrie {
+
+	private static final class Node {
+		private final Map<Character, Node> children = new TreeMap<>();
+		private int count; // Number of times the term ending here was added and not removed
+	}
+
+	private final Node root = new Node();
+	private int size; // Distinct terms
+
+	/**
+	 * Adds one occurrence of a term.
+	 */
+	public void add(String term) {
+		Node node = root;
+		for (int i = 0; i < term.length(); i++) {
+			node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+		}
+		if (node.count++ == 0) {
+			size++;
+		}
+	}
+
+	/**
+	 * Removes one occurrence of a term; the term disappears with its last occurrence.
+	 */
+	public void remove(String term) {
+		Deque<Node> path = new ArrayDeque<>();
+		Node node = root;
+		for (int i = 0; i < term.length(); i++) {
+			path.push(node);
+			node = node.children.get(term.charAt(i));
+			if (node == null) {
+				return;
+			}
+		}
+		if (node.count == 0 || --node.count > 0) {
+			return;
+		}
+		size--;
+		// Prune the branch up to the first node still used by another term
+		for (int i = term.length() - 1; i >= 0 && node.count == 0 && node.children.isEmpty(); i--) {
+			Node parent = path.pop();
+			parent.children.remove(term.charAt(i));
+			node = parent;
+		}
+	}
+
+	/**
+	 * @param prefix the beginning of the terms
+	 * @param limit  maximum number of terms returned
+	 * @return the terms starting with the prefix (including the prefix itself), alphabetically
+	 */
+	public List<String> termsWithPrefix(String prefix, int limit) {
+		List<String> terms = new ArrayList<>();
+		Node node = root;
+		for (int i = 0; i < prefix.length() && node != null; i++) {
+			node = node.children.get(prefix.charAt(i));
+		}
+		if (node != null) {
+			collect(node, new StringBuilder(prefix), terms, limit);
+		}
+		return terms;
+	}
+
+	private static void collect(Node node, StringBuilder term, List<String> terms, int limit) {
+		if (terms.size() >= limit) {
+			return;
+		}
+		if (node.count > 0) {
+			terms.add(term.toString());
+		}
+		for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+			term.append(child.getKey());
+			collect(child.getValue(), term, terms, limit);
+			term.setLength(term.length() - 1);
+		}
+	}
+
+	/**
+	 * @return the number of distinct terms
+	 */
+	public int size() {
+		return size;
+	}
+}
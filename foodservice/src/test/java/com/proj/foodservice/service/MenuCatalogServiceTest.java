@@ -0,0 +1,118 @@
+package com.proj.foodservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.beans.MenuCatalogBean;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.repository.MenuItemRepository;
+
+class MenuCatalogServiceTest {
+
+	private MenuItemRepository repository;
+	private MenuItemService menuItemService;
+	private MenuCatalogService catalogService;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(MenuItemRepository.class);
+		menuItemService = mock(MenuItemService.class);
+		catalogService = catalogService();
+	}
+
+	@Test
+	void returnsDeltaSinceKnownVersion() {
+		MenuItem paneer = new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer");
+		MenuItem naan = new MenuItem(2, "Bread", "Naan", 40, "Butter naan");
+		when(repository.findAll()).thenReturn(List.of(paneer, naan));
+		catalogService.refresh();
+		MenuCatalogBean full = catalogService.getCatalog(null);
+		assertTrue(full.isFull());
+		assertEquals(2, full.getDishes().size());
+
+		MenuItem cheaperPaneer = new MenuItem(1, "Main", "Paneer Tikka", 220, "Grilled paneer");
+		when(repository.findAll()).thenReturn(List.of(cheaperPaneer));
+		catalogService.refresh();
+		verify(menuItemService).evictDish(cheaperPaneer);
+		verify(menuItemService).evictDish(naan);
+
+		MenuCatalogBean delta = catalogService.getCatalog(full.getCatalogId());
+		assertFalse(delta.isFull());
+		assertEquals(full.getVersion() + 1, delta.getVersion());
+		assertEquals(220, delta.getDishes().get(0).getUnitPrice());
+		assertEquals(List.of(2), delta.getRemoved());
+	}
+
+	@Test
+	void fallsBackToFullSnapshotForUnknownOrExpiredSnapshots() {
+		List<String> catalogIds = new ArrayList<>();
+		for (int price = 100; price < 105; price++) {
+			when(repository.findAll()).thenReturn(List.of(new MenuItem(1, "Main", "Dal", price, "Yellow dal")));
+			catalogService.refresh();
+			catalogIds.add(catalogService.getCatalog(null).getCatalogId());
+		}
+		MenuCatalogBean current = catalogService.getCatalog(null);
+		assertEquals(5, current.getVersion());
+
+		assertTrue(catalogService.getCatalog("unknown").isFull());
+		assertTrue(catalogService.getCatalog(catalogIds.get(0)).isFull());
+		assertFalse(catalogService.getCatalog(catalogIds.get(2)).isFull());
+		assertTrue(catalogService.getCatalog(current.getCatalogId()).getDishes().isEmpty());
+	}
+
+	@Test
+	void instancesWithTheSameMenuShareTheCatalogId() {
+		MenuItem paneer = new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer");
+		MenuItem naan = new MenuItem(2, "Bread", "Naan", 40, "Butter naan");
+		when(repository.findAll()).thenReturn(List.of(paneer, naan));
+		catalogService.refresh();
+		MenuCatalogBean first = catalogService.getCatalog(null);
+
+		// Another instance, which went through another version before loading the same menu
+		MenuCatalogService otherInstance = catalogService();
+		when(repository.findAll()).thenReturn(List.of(naan));
+		otherInstance.refresh();
+		when(repository.findAll()).thenReturn(List.of(naan, paneer));
+		otherInstance.refresh();
+
+		MenuCatalogBean fromOther = otherInstance.getCatalog(first.getCatalogId());
+		assertEquals(first.getCatalogId(), fromOther.getCatalogId());
+		assertFalse(fromOther.isFull());
+		assertTrue(fromOther.getDishes().isEmpty());
+		assertEquals(2, fromOther.getVersion());
+	}
+
+	@Test
+	void dishMovedToAnotherCategoryEvictsBothCategories() {
+		when(repository.findAll()).thenReturn(List.of(new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer")));
+		catalogService.refresh();
+
+		MenuItem starter = new MenuItem(1, "Starter", "Paneer Tikka", 250, "Grilled paneer");
+		when(repository.findAll()).thenReturn(List.of(starter));
+		catalogService.refresh();
+
+		verify(menuItemService).evictDish(starter);
+		verify(menuItemService).evictCategory("Main");
+	}
+
+	private MenuCatalogService catalogService() {
+		MenuCatalogService service = new MenuCatalogService();
+		ReflectionTestUtils.setField(service, "repository", repository);
+		ReflectionTestUtils.setField(service, "menuItemService", menuItemService);
+		ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+		ReflectionTestUtils.setField(service, "historySize", 2);
+		return service;
+	}
+}
@@ -0,0 +1,170 @@
+package com.proj.foodservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.beans.DishBatchBean;
+import com.proj.foodservice.config.MenuCacheConfig;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.exception.MenuException;
+import com.proj.foodservice.repository.MenuItemRepository;
+import com.proj.foodservice.util.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MenuItemServiceTest {
+
+	private MenuItemRepository repository;
+	private ConcurrentMapCacheManager cacheManager;
+	private SimpleMeterRegistry meterRegistry;
+	private MenuItemService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(MenuItemRepository.class);
+		cacheManager = new ConcurrentMapCacheManager(MenuCacheConfig.DISH_CACHE);
+		service = new MenuItemService();
+		ReflectionTestUtils.setField(service, "repository", repository);
+		ReflectionTestUtils.setField(service, "cacheManager", cacheManager);
+		meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(service, "menuSingleFlight", new SingleFlight("menu", Duration.ofSeconds(2), meterRegistry));
+		ReflectionTestUtils.setField(service, "batchMaxIds", 500);
+	}
+
+	@Test
+	void loadsTheDistinctUncachedIdsOnceAndReportsTheMissingOnes() {
+		cacheManager.getCache(MenuCacheConfig.DISH_CACHE).put(1, dish(1));
+		when(repository.findAllById(List.of(2, 3))).thenReturn(List.of(dish(2)));
+
+		DishBatchBean batch = service.getMenusByIds(List.of(1, 2, 1, 3, 2));
+
+		assertEquals(List.of(1, 2), List.copyOf(batch.getDishes().keySet()));
+		assertEquals(List.of(3), batch.getMissing());
+		verify(repository).findAllById(List.of(2, 3));
+	}
+
+	@Test
+	void rejectsNullIds() {
+		assertThrows(IllegalArgumentException.class, () -> service.getMenusByIds(Arrays.asList(1, null, 2)));
+		verify(repository, never()).findAllById(any());
+	}
+
+	@Test
+	void timesTheQueriesWithTheirOutcome() {
+		when(repository.findById(1)).thenReturn(Optional.of(dish(1)));
+		when(repository.findById(9)).thenReturn(Optional.empty());
+
+		assertDoesNotThrow(() -> service.getMenuById(1));
+		assertThrows(MenuException.class, () -> service.getMenuById(9));
+
+		assertEquals(1, meterRegistry.timer("menu.db.query", "operation", "get_menu_by_id", "outcome", "success").count());
+		assertEquals(1, meterRegistry.timer("menu.db.query", "operation", "get_menu_by_id", "outcome", "not_found").count());
+	}
+
+	@Test
+	void concurrentMissesForADishShareOneQuery() throws Exception {
+		CountDownLatch queried = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findById(1)).thenAnswer(invocation -> {
+			queried.countDown();
+			release.await();
+			return Optional.of(dish(1));
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (AnnotationConfigApplicationContext context = cachedContext()) {
+			MenuItemService cached = context.getBean(MenuItemService.class);
+			List<Future<MenuItem>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> cached.getMenuById(1)));
+			}
+			queried.await();
+			Thread.sleep(100); // Let the other callers reach the single flight while the query runs
+			release.countDown();
+
+			for (Future<MenuItem> result : results) {
+				assertEquals(1, result.get(5, TimeUnit.SECONDS).getDishId());
+			}
+			MeterRegistry registry = context.getBean(MeterRegistry.class);
+			assertEquals(1, registry.counter("singleflight.requests", "name", "menu", "role", "leader", "outcome", "success").count());
+			assertEquals(7, registry.counter("singleflight.requests", "name", "menu", "role", "waiter", "outcome", "success").count());
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(repository, times(1)).findById(1);
+	}
+
+	@Test
+	void missingDishIsReportedAndNotCached() {
+		when(repository.findById(9)).thenReturn(Optional.empty());
+		try (AnnotationConfigApplicationContext context = cachedContext()) {
+			MenuItemService cached = context.getBean(MenuItemService.class);
+
+			assertThrows(MenuException.class, () -> cached.getMenuById(9));
+			assertThrows(MenuException.class, () -> cached.getMenuById(9));
+		}
+		verify(repository, times(2)).findById(9);
+	}
+
+	@Test
+	void categoriesAreCachedIgnoringCaseAndEvictedWhenADishLeavesThem() throws Exception {
+		MenuItem paneer = new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer");
+		when(repository.findByDishCategory(any())).thenReturn(List.of(dish(2), paneer));
+		try (AnnotationConfigApplicationContext context = cachedContext()) {
+			MenuItemService cached = context.getBean(MenuItemService.class);
+			assertEquals(2, cached.getMenus("Main").size());
+			assertEquals(2, cached.getMenus("MAIN").size());
+			verify(repository, times(1)).findByDishCategory(any());
+
+			// Paneer moves to the starters: both lists are reloaded, whatever the case they were asked with
+			when(repository.findByDishCategory(any())).thenAnswer(invocation -> "starter".equalsIgnoreCase(invocation.getArgument(0))
+					? List.of(new MenuItem(1, "Starter", "Paneer Tikka", 250, "Grilled paneer"))
+					: List.of(dish(2)));
+			cached.getMenus("starter");
+			cached.evictDish(new MenuItem(1, "Starter", "Paneer Tikka", 250, "Grilled paneer"));
+			cached.evictCategory("Main");
+
+			assertEquals(List.of(dish(2)), cached.getMenus("main"));
+			assertEquals(1, cached.getMenus("STARTER").get(0).getDishId());
+			verify(repository, times(4)).findByDishCategory(any());
+		}
+	}
+
+	private AnnotationConfigApplicationContext cachedContext() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(MenuCacheConfig.class, MenuItemService.class);
+		context.registerBean(MenuItemRepository.class, () -> repository);
+		context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+		context.refresh();
+		return context;
+	}
+
+	private static MenuItem dish(int dishId) {
+		return new MenuItem(dishId, "Main", "Dish " + dishId, 100, "");
+	}
+}
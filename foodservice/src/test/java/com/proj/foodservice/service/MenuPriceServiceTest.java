@@ -0,0 +1,69 @@
+package com.proj.foodservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+import com.proj.foodservice.exception.MenuException;
+import com.proj.foodservice.service.MenuPriceService.PriceOrder;
+
+class MenuPriceServiceTest {
+
+	private MenuPriceService priceService;
+
+	@BeforeEach
+	void setUp() {
+		priceService = new MenuPriceService();
+		priceService.onMenuChanged(new MenuChangedEvent(1, List.of(
+				new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer"),
+				new MenuItem(2, "Main", "Palak Paneer", 230, "Spinach curry"),
+				new MenuItem(3, "Main", "Butter Chicken", 300, "Creamy chicken"),
+				new MenuItem(4, "Main", "Dal Makhani", 230, "Black lentils"),
+				new MenuItem(5, "Bread", "Naan", 40, "Butter naan")), List.of()));
+	}
+
+	@Test
+	void servesPriceRangesInBothOrders() throws MenuException {
+		assertEquals(List.of(2, 4, 1), ids(priceService.getMenus("Main", null, 299, PriceOrder.PRICE, 10)));
+		assertEquals(List.of(3, 1), ids(priceService.getMenus("Main", 240, 300, PriceOrder.PRICE_DESC, 10)));
+		assertEquals(List.of(2), ids(priceService.getMenus("Main", 230, 230, PriceOrder.PRICE, 1)));
+		assertEquals(List.of(), priceService.getMenus("Main", 400, null, PriceOrder.PRICE, 10));
+		assertThrows(MenuException.class, () -> priceService.getMenus("Dessert", null, null, PriceOrder.PRICE, 10));
+		assertThrows(IllegalArgumentException.class, () -> priceService.getMenus("Main", 300, 200, PriceOrder.PRICE, 10));
+	}
+
+	@Test
+	void rebuildsTheCategoriesOfChangedDishes() throws MenuException {
+		priceService.onMenuChanged(new MenuChangedEvent(2,
+				List.of(new MenuItem(3, "Bread", "Butter Chicken Naan", 90, "Stuffed naan")),
+				List.of(new MenuItem(4, "Main", "Dal Makhani", 230, "Black lentils"))));
+
+		assertEquals(List.of(2, 1), ids(priceService.getMenus("Main", null, null, PriceOrder.PRICE, 10)));
+		Map<String, List<MenuItem>> cheapest = priceService.getCheapest(1);
+		assertEquals(List.of("Bread", "Main"), List.copyOf(cheapest.keySet()));
+		assertEquals(List.of(5), ids(cheapest.get("Bread")));
+		assertEquals(List.of(2), ids(cheapest.get("Main")));
+	}
+
+	@Test
+	void matchesCategoriesRegardlessOfCase() throws MenuException {
+		assertEquals(List.of(2, 4), ids(priceService.getMenus("main", null, null, PriceOrder.PRICE, 2)));
+		assertEquals(List.of(5), ids(priceService.getMenus("BREAD", 10, 50, PriceOrder.PRICE, 10)));
+
+		// A dish whose category is spelled differently joins the same index
+		priceService.onMenuChanged(new MenuChangedEvent(2, List.of(new MenuItem(6, "bread", "Roti", 20, "Whole wheat")), List.of()));
+		assertEquals(List.of(6, 5), ids(priceService.getMenus("Bread", null, null, PriceOrder.PRICE, 10)));
+		assertEquals(List.of("Bread", "Main"), List.copyOf(priceService.getCheapest(1).keySet()));
+	}
+
+	private static List<Integer> ids(List<MenuItem> items) {
+		return items.stream().map(MenuItem::getDishId).toList();
+	}
+}
@@ -0,0 +1,61 @@
+package com.proj.foodservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.beans.DishSuggestionBean;
+import com.proj.foodservice.entity.MenuItem;
+import com.proj.foodservice.event.MenuChangedEvent;
+
+class MenuSearchServiceTest {
+
+	private MenuSearchService searchService;
+
+	@BeforeEach
+	void setUp() {
+		searchService = new MenuSearchService();
+		ReflectionTestUtils.setField(searchService, "prefixExpansions", 50);
+		searchService.onMenuChanged(new MenuChangedEvent(1, List.of(
+				new MenuItem(1, "Main", "Paneer Tikka", 250, "Grilled paneer with spices"),
+				new MenuItem(2, "Main", "Palak Paneer", 230, "Spinach and cottage cheese curry"),
+				new MenuItem(3, "Main", "Butter Chicken", 300, "Chicken in a creamy tomato sauce"),
+				new MenuItem(4, "Dessert", "Pancakes", 120, "Served with maple syrup, no paneer")), List.of()));
+	}
+
+	@Test
+	void ranksNameMatchesFirstAndMatchesTheLastWordAsPrefix() {
+		assertEquals(List.of(1, 2, 4), ids(searchService.search("paneer", 10)));
+		// Matching both words beats matching one
+		assertEquals(List.of(1, 2, 4), ids(searchService.search("Panéer TIKKA", 10)));
+		// "pan" is being typed: the rare pancakes outranks the common paneer
+		assertEquals(List.of(4, 1, 2), ids(searchService.search("pan", 10)));
+		assertEquals(List.of(), searchService.search("pan ", 10));
+		assertThrows(IllegalArgumentException.class, () -> searchService.search("the ", 10));
+	}
+
+	@Test
+	void suggestsNamesStartingWithThePrefixFirstAndFollowsMenuChanges() {
+		assertEquals(List.of("Pancakes", "Palak Paneer", "Paneer Tikka"),
+				searchService.suggest("pa", 10).stream().map(DishSuggestionBean::getDishName).toList());
+		assertEquals(List.of("Paneer Tikka"),
+				searchService.suggest("paneer ti", 10).stream().map(DishSuggestionBean::getDishName).toList());
+
+		searchService.onMenuChanged(new MenuChangedEvent(2,
+				List.of(new MenuItem(1, "Main", "Tandoori Paneer", 260, "Grilled paneer")),
+				List.of(new MenuItem(4, "Dessert", "Pancakes", 120, "Served with maple syrup, no paneer"))));
+		assertEquals(List.of("Palak Paneer", "Tandoori Paneer"),
+				searchService.suggest("paneer", 10).stream().map(DishSuggestionBean::getDishName).toList());
+		assertEquals(List.of(), searchService.suggest("tikka", 10));
+		assertEquals(List.of(), searchService.search("maple", 10));
+	}
+
+	private static List<Integer> ids(List<MenuItem> items) {
+		return items.stream().map(MenuItem::getDishId).toList();
+	}
+}
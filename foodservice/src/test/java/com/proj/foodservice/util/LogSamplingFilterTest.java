@@ -0,0 +1,56 @@
+package com.proj.foodservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class LogSamplingFilterTest {
+
+	private final LoggerContext context = new LoggerContext();
+
+	@Test
+	void samplesEveryMessageOfALoggerOnItsOwn() {
+		LogSamplingFilter filter = filter(2);
+		Logger logger = context.getLogger("com.proj.foodservice.service.MenuItemService");
+
+		int first = 0;
+		int second = 0;
+		for (int request = 0; request < 10; request++) {
+			// Two messages per request: keyed by logger alone, the second one would never pass
+			first += kept(filter.decide(null, logger, Level.INFO, "Attempting to get dish by ID: {}", null, null));
+			second += kept(filter.decide(null, logger, Level.INFO, "Returning dish {}", null, null));
+		}
+
+		assertEquals(5, first);
+		assertEquals(5, second);
+	}
+
+	@Test
+	void keepsWarningsAndOtherLoggers() {
+		LogSamplingFilter filter = filter(10);
+		Logger sampled = context.getLogger("com.proj.foodservice.controller.MenuItemController");
+		Logger other = context.getLogger("com.proj.foodservice.service.MenuCatalogService");
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, sampled, Level.WARN, "Rejected {}", null, null));
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "Refreshed {}", null, null));
+		}
+	}
+
+	private static LogSamplingFilter filter(int rate) {
+		LogSamplingFilter filter = new LogSamplingFilter();
+		filter.addLogger("com.proj.foodservice.controller");
+		filter.addLogger("com.proj.foodservice.service.MenuItemService");
+		filter.setRate(rate);
+		return filter;
+	}
+
+	private static int kept(FilterReply reply) {
+		return reply == FilterReply.NEUTRAL ? 1 : 0;
+	}
+}
@@ -0,0 +1,49 @@
+package com.proj.foodservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReadWriteRoutingDataSourceTest {
+
+	@Test
+	void sendsReadOnlyTransactionsToTheReplica() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(database("menu_primary"),
+				database("menu_replica"), meterRegistry);
+		routing.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		String query = "SELECT name FROM node";
+		assertEquals("menu_replica", readOnly.execute(status -> jdbcTemplate.queryForObject(query, String.class)));
+		assertEquals("menu_primary", readWrite.execute(status -> jdbcTemplate.queryForObject(query, String.class)));
+		assertEquals("menu_primary", jdbcTemplate.queryForObject(query, String.class));
+		// A read-only part of a read-write transaction stays on the primary
+		assertEquals("menu_primary", readWrite.execute(status -> readOnly.execute(
+				nested -> jdbcTemplate.queryForObject(query, String.class))));
+		assertEquals(1, meterRegistry.counter("datasource.routing", "role", "replica").count());
+	}
+
+	private static DataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+		jdbcTemplate.update("DELETE FROM node");
+		jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,112 @@
+package com.proj.foodservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.proj.foodservice.exception.MenuException;
+import com.proj.foodservice.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void concurrentIdenticalReadsShareOneLoad() throws Exception {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofSeconds(5), meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> singleFlight.execute("category:Main", () -> {
+					loads.incrementAndGet();
+					started.countDown();
+					release.await();
+					return "dishes";
+				})));
+			}
+			// Let every other caller wait for the load before it completes
+			started.await();
+			while (waiting(singleFlight) < 7) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("dishes", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1, counted("leader", "success"));
+		assertEquals(7, counted("waiter", "success"));
+	}
+
+	@Test
+	void waiterGivesUpAfterMaxWaitWithoutLoadingAgain() throws Exception {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofMillis(50), meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> slow = executor.submit(() -> singleFlight.execute("dish:1", () -> {
+				loads.incrementAndGet();
+				started.countDown();
+				release.await();
+				return "slow";
+			}));
+			started.await();
+			assertThrows(ServiceUnavailableException.class, () -> singleFlight.execute("dish:1", () -> {
+				loads.incrementAndGet();
+				return "own";
+			}));
+			assertEquals(1, counted("waiter", "timeout"));
+			release.countDown();
+			assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void leaderFailureIsCountedAndThrown() {
+		SingleFlight singleFlight = new SingleFlight("test", Duration.ofSeconds(1), meterRegistry);
+
+		assertThrows(MenuException.class, () -> singleFlight.execute("dish:2", () -> {
+			throw new MenuException("Dish not found");
+		}));
+		assertEquals(1, counted("leader", "error"));
+	}
+
+	private double counted(String role, String outcome) {
+		return meterRegistry.counter("singleflight.requests", "name", "test", "role", role, "outcome", outcome).count();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int waiting(SingleFlight singleFlight) {
+		// Waiters are only visible as dependents of the future of the leader
+		Map<Object, CompletableFuture<Object>> inFlight = (Map<Object, CompletableFuture<Object>>) ReflectionTestUtils.getField(singleFlight, "inFlight");
+		return inFlight.values().stream().mapToInt(CompletableFuture::getNumberOfDependents).sum();
+	}
+}
@@ -0,0 +1,110 @@
+package com.proj.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator sends the requests of a Scenario at a fixed rate (open model): request i is due at
+ * start + i / rps and sent then, whatever the number of requests still awaiting a response, the way
+ * independent customers keep arriving when the service slows down. Its route is drawn at random
+ * according to the weights of the mix.
+ *
+ * The requests are sent asynchronously over HTTP/1.1 by one client, which reuses its connections.
+ */
+public class LoadGenerator {
+
+	private final Scenario scenario;
+	private final LoadProfile profile;
+	private final Route[] routes;
+	private final int[] cumulativeWeights;
+	private final HttpClient client;
+
+	public LoadGenerator(Scenario scenario, LoadProfile profile) {
+		this.scenario = scenario;
+		this.profile = profile;
+		this.routes = Route.values();
+		this.cumulativeWeights = new int[routes.length];
+		int total = 0;
+		for (int i = 0; i < routes.length; i++) {
+			total += profile.getMix().get(routes[i]);
+			cumulativeWeights[i] = total;
+		}
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(profile.getTimeout())
+				.build();
+	}
+
+	/**
+	 * Applies the load for a duration, then waits for the responses still expected.
+	 *
+	 * @return The outcome of each route with a weight.
+	 */
+	public Map<Route, RouteStats> run(Duration duration) throws InterruptedException {
+		Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+		for (Route route : routes) {
+			if (profile.getMix().get(route) > 0) {
+				stats.put(route, new RouteStats());
+			}
+		}
+		AtomicInteger inFlight = new AtomicInteger();
+		long intervalNanos = 1_000_000_000L / profile.getRps();
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+		for (long due = start; due < end; due += intervalNanos) {
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Route route = nextRoute();
+			send(route, stats.get(route), due, inFlight);
+		}
+		// The responses are awaited at most for the timeout, the requests are abandoned after it
+		long deadline = System.nanoTime() + profile.getTimeout().toNanos() + 1_000_000_000L;
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		return stats;
+	}
+
+	private void send(Route route, RouteStats stats, long due, AtomicInteger inFlight) {
+		HttpRequest request = scenario.request(route);
+		if (request == null) {
+			stats.skipped();
+			return;
+		}
+		if (inFlight.get() >= profile.getMaxInFlight()) {
+			stats.dropped();
+			return;
+		}
+		stats.sent();
+		inFlight.incrementAndGet();
+		client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+			long latency = System.nanoTime() - due;
+			if (failure != null) {
+				stats.failed();
+			} else {
+				stats.response(response.statusCode(), latency);
+				scenario.onResponse(route, response);
+			}
+			inFlight.decrementAndGet();
+		});
+	}
+
+	private Route nextRoute() {
+		int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < routes.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return routes[i];
+			}
+		}
+		throw new IllegalStateException();
+	}
+}
@@ -0,0 +1,148 @@
+package com.proj.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * The settings of a load test run, from the command line (durations as 60s, 2m or ms):
+ * - -rps: requests sent per second, whatever the response times (open model), 100 by default.
+ * - -warmup: time the load is applied before measuring, 10s by default.
+ * - -duration: time the load is measured, 60s by default.
+ * - -mix: weight of each route, e.g. menu.category=30,order.place=20, the defaults of Route for
+ *   the routes not listed; 0 leaves a route out.
+ * - -customers: number of customers ordering, 1000 by default.
+ * - -clients: number of kiosks the customers order from, 20 by default. Each sends its own API key,
+ *   which the gateway rate limits by, so that the limits apply as they would in production.
+ * - -timeout: time a response is awaited before counting the request as failed, 10s by default.
+ * - -max-in-flight: requests awaiting a response beyond which new ones are dropped, 5000 by default.
+ * - -gateway-port: port of the gateway, any free port by default.
+ * - -output: file the results are written to, loadtest-result.json by default.
+ */
+public class LoadProfile {
+
+	private int rps = 100;
+	private Duration warmup = Duration.ofSeconds(10);
+	private Duration duration = Duration.ofSeconds(60);
+	private final Map<Route, Integer> mix = new EnumMap<>(Route.class);
+	private int customers = 1000;
+	private int clients = 20;
+	private Duration timeout = Duration.ofSeconds(10);
+	private int maxInFlight = 5000;
+	private int gatewayPort = 0;
+	private String output = "loadtest-result.json";
+
+	public LoadProfile() {
+		for (Route route : Route.values()) {
+			mix.put(route, route.getDefaultWeight());
+		}
+	}
+
+	public static LoadProfile parse(String[] args) {
+		LoadProfile profile = new LoadProfile();
+		for (int i = 0; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("No value given for " + args[i]);
+			}
+			String value = args[i + 1];
+			switch (args[i]) {
+			case "-rps" -> profile.rps = positive(args[i], Integer.parseInt(value));
+			case "-warmup" -> profile.warmup = DurationStyle.detectAndParse(value);
+			case "-duration" -> profile.duration = DurationStyle.detectAndParse(value);
+			case "-mix" -> profile.parseMix(value);
+			case "-customers" -> profile.customers = positive(args[i], Integer.parseInt(value));
+			case "-clients" -> profile.clients = positive(args[i], Integer.parseInt(value));
+			case "-timeout" -> profile.timeout = DurationStyle.detectAndParse(value);
+			case "-max-in-flight" -> profile.maxInFlight = positive(args[i], Integer.parseInt(value));
+			case "-gateway-port" -> profile.gatewayPort = Integer.parseInt(value);
+			case "-output" -> profile.output = value;
+			default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		if (profile.duration.isZero() || profile.duration.isNegative()) {
+			throw new IllegalArgumentException("-duration must be positive");
+		}
+		if (profile.mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("-mix leaves no route");
+		}
+		return profile;
+	}
+
+	private void parseMix(String value) {
+		for (String entry : value.split(",")) {
+			String[] weight = entry.trim().split("=");
+			if (weight.length != 2 || Integer.parseInt(weight[1].trim()) < 0) {
+				throw new IllegalArgumentException("Invalid -mix entry " + entry + ", expected route=weight");
+			}
+			mix.put(Route.parse(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+		}
+	}
+
+	private static int positive(String option, int value) {
+		if (value <= 0) {
+			throw new IllegalArgumentException(option + " must be positive");
+		}
+		return value;
+	}
+
+	/**
+	 * @return The settings, as written to the results.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		mix.forEach((route, weight) -> weights.put(route.getId(), weight));
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("rps", rps);
+		map.put("warmupSeconds", warmup.toMillis() / 1000.0);
+		map.put("durationSeconds", duration.toMillis() / 1000.0);
+		map.put("mix", weights);
+		map.put("customers", customers);
+		map.put("clients", clients);
+		map.put("timeoutMs", timeout.toMillis());
+		map.put("maxInFlight", maxInFlight);
+		return map;
+	}
+
+	public int getRps() {
+		return rps;
+	}
+
+	public Duration getWarmup() {
+		return warmup;
+	}
+
+	public Duration getDuration() {
+		return duration;
+	}
+
+	public Map<Route, Integer> getMix() {
+		return mix;
+	}
+
+	public int getCustomers() {
+		return customers;
+	}
+
+	public int getClients() {
+		return clients;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public int getGatewayPort() {
+		return gatewayPort;
+	}
+
+	public String getOutput() {
+		return output;
+	}
+}
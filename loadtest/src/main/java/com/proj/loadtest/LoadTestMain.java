@@ -0,0 +1,95 @@
+package com.proj.loadtest;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Entry point of the loadtest jar. Boots the gateway and the services (see ServiceCluster), applies
+ * the load of the profile (see LoadProfile) for the warm-up, then measures it and writes the results
+ * as JSON to loadtest-result.json, so that runs of two commits can be compared: per route and in
+ * total, the requests, errors and error rate, the throughput (2xx responses per second), the p50,
+ * p95 and p99 latencies in ms and the count of each status code. The logs of the apps are written
+ * to target/loadtest-logs.
+ *
+ * Examples:
+ *   java -jar target/loadtest.jar                                     100 requests/s for 60s
+ *   java -jar target/loadtest.jar -rps 500 -duration 2m -output before.json
+ *   java -jar target/loadtest.jar -rps 500 -clients 5                 5 kiosks, beyond their rate limits
+ *   java -jar target/loadtest.jar -mix order.place=50,order.cancel=50,menu.category=0,menu.dish=0,menu.search=0
+ */
+public class LoadTestMain {
+
+	public static void main(String[] args) {
+		if (args.length >= 2 && args[0].equals("-service")) {
+			// One of the apps, started by ServiceCluster: runs until stopped
+			try {
+				ServiceCluster.runService(args[1], Arrays.copyOfRange(args, 2, args.length));
+			} catch (Exception e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+			return;
+		}
+		try {
+			run(LoadProfile.parse(args));
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		// The apps are stopped once the cluster is closed, whatever threads the HTTP client leaves behind
+		System.exit(0);
+	}
+
+	private static void run(LoadProfile profile) throws Exception {
+		Map<Route, RouteStats> stats;
+		Instant startedAt;
+		try (ServiceCluster cluster = new ServiceCluster(profile.getGatewayPort())) {
+			cluster.start(profile.getCustomers(), Scenario.apiKeys(profile.getClients()));
+			Scenario scenario = new Scenario(cluster.gatewayUrl(), cluster.menu(), profile.getCustomers(), profile.getClients(),
+					profile.getTimeout());
+			LoadGenerator generator = new LoadGenerator(scenario, profile);
+			if (!profile.getWarmup().isZero()) {
+				System.out.printf("Warming up at %d requests/s for %ss%n", profile.getRps(), profile.getWarmup().toSeconds());
+				generator.run(profile.getWarmup());
+			}
+			System.out.printf("Measuring at %d requests/s for %ss%n", profile.getRps(), profile.getDuration().toSeconds());
+			startedAt = Instant.now();
+			stats = generator.run(profile.getDuration());
+		}
+
+		double seconds = profile.getDuration().toMillis() / 1000.0;
+		RouteStats total = new RouteStats();
+		Map<String, Object> routes = new LinkedHashMap<>();
+		System.out.printf("%-14s %9s %8s %9s %9s %9s %9s%n", "route", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+		for (Map.Entry<Route, RouteStats> entry : stats.entrySet()) {
+			RouteStats route = entry.getValue();
+			Map<String, Object> result = new LinkedHashMap<>();
+			result.put("route", entry.getKey().getTemplate());
+			result.putAll(route.toMap(seconds));
+			routes.put(entry.getKey().getId(), result);
+			total.add(route);
+			print(entry.getKey().getId(), route, seconds);
+		}
+		print("total", total, seconds);
+
+		Map<String, Object> results = new LinkedHashMap<>();
+		results.put("startedAt", startedAt.toString());
+		results.put("profile", profile.toMap());
+		results.put("total", total.toMap(seconds));
+		results.put("routes", routes);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(profile.getOutput()), results);
+		System.out.println("Results written to " + profile.getOutput());
+	}
+
+	private static void print(String id, RouteStats route, double seconds) {
+		System.out.printf("%-14s %9d %8d %9.1f %9.2f %9.2f %9.2f%n", id, route.getRequests(), route.getErrors(),
+				(route.getRequests() - route.getErrors()) / seconds, route.getLatency(50), route.getLatency(95),
+				route.getLatency(99));
+	}
+}
@@ -0,0 +1,45 @@
+package com.proj.loadtest;
+
+/**
+ * The requests replayed by the load test, all sent through the gateway, with their share of the
+ * traffic by default (see LoadProfile for the -mix option).
+ */
+public enum Route {
+
+	MENU_CATEGORY("menu.category", "GET /client1/dish/category/{dishCategory}", 30),
+	MENU_DISH("menu.dish", "GET /client1/dish/{dishId}", 25),
+	MENU_SEARCH("menu.search", "GET /client1/dish/search?q={words}", 15),
+	ORDER_PLACE("order.place", "POST /client2/order", 20),
+	ORDER_CANCEL("order.cancel", "PUT /client2/order/{id}", 10);
+
+	private final String id;
+	private final String template;
+	private final int defaultWeight;
+
+	Route(String id, String template, int defaultWeight) {
+		this.id = id;
+		this.template = template;
+		this.defaultWeight = defaultWeight;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getTemplate() {
+		return template;
+	}
+
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	public static Route parse(String id) {
+		for (Route route : values()) {
+			if (route.id.equals(id)) {
+				return route;
+			}
+		}
+		throw new IllegalArgumentException("Unknown route " + id);
+	}
+}
@@ -0,0 +1,121 @@
+package com.proj.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of the requests of one route (or of all of them) over a measurement:
+ * - requests: the requests due, including the dropped and failed ones.
+ * - ok: the 2xx responses, the only ones whose latency is recorded (a fast 404 or 429 would
+ *   make the route look faster).
+ * - errors: the other responses, plus the failures (no response within the timeout, connection
+ *   errors) and the requests dropped because too many were awaiting a response.
+ * - skipped: the cancellations due while there was no order to cancel, not counted as requests.
+ *
+ * The latency of a request runs from the time it was due, not the time it was sent, so that a
+ * load generator falling behind shows up in the percentiles instead of hiding the slowdown
+ * (coordinated omission).
+ */
+public class RouteStats {
+
+	private final Histogram latencies = new ConcurrentHistogram(3); // microseconds, auto-resized
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder ok = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+	public void sent() {
+		requests.increment();
+	}
+
+	public void response(int statusCode, long latencyNanos) {
+		statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+		if (statusCode / 100 == 2) {
+			ok.increment();
+			latencies.recordValue(Math.max(latencyNanos / 1000, 0));
+		}
+	}
+
+	public void failed() {
+		failures.increment();
+	}
+
+	public void dropped() {
+		requests.increment();
+		dropped.increment();
+	}
+
+	public void skipped() {
+		skipped.increment();
+	}
+
+	/**
+	 * Adds the outcome of another route to this one.
+	 */
+	public void add(RouteStats other) {
+		latencies.add(other.latencies);
+		requests.add(other.requests.sum());
+		ok.add(other.ok.sum());
+		failures.add(other.failures.sum());
+		dropped.add(other.dropped.sum());
+		skipped.add(other.skipped.sum());
+		other.statusCodes.forEach((code, count) -> statusCodes.computeIfAbsent(code, c -> new LongAdder()).add(count.sum()));
+	}
+
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	public long getErrors() {
+		return requests.sum() - ok.sum();
+	}
+
+	public double getErrorRate() {
+		long total = requests.sum();
+		return total == 0 ? 0 : (double) getErrors() / total;
+	}
+
+	/**
+	 * @return The latency at a percentile, in ms.
+	 */
+	public double getLatency(double percentile) {
+		return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	/**
+	 * @param seconds - The length of the measurement.
+	 * @return The outcome, as written to the results.
+	 */
+	public Map<String, Object> toMap(double seconds) {
+		Map<String, Object> latency = new LinkedHashMap<>();
+		latency.put("p50", getLatency(50));
+		latency.put("p95", getLatency(95));
+		latency.put("p99", getLatency(99));
+		latency.put("max", latencies.getTotalCount() == 0 ? 0 : latencies.getMaxValue() / 1000.0);
+		latency.put("mean", latencies.getTotalCount() == 0 ? 0 : latencies.getMean() / 1000.0);
+
+		Map<String, Long> codes = new TreeMap<>();
+		statusCodes.forEach((code, count) -> codes.put(String.valueOf(code), count.sum()));
+
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("requests", requests.sum());
+		map.put("ok", ok.sum());
+		map.put("errors", getErrors());
+		map.put("errorRate", getErrorRate());
+		map.put("throughput", ok.sum() / seconds); // responses 2xx per second
+		map.put("latencyMs", latency);
+		map.put("statusCodes", codes);
+		map.put("failures", failures.sum());
+		map.put("dropped", dropped.sum());
+		map.put("skipped", skipped.sum());
+		return map;
+	}
+}
@@ -0,0 +1,141 @@
+package com.proj.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Scenario builds the requests of each route the way customers send them: browsing the menu by
+ * category, opening a dish, searching by name (sometimes with the last word still being typed),
+ * ordering one to three portions of a dish and cancelling one of their recent orders.
+ *
+ * Every request is sent by a random customer from the kiosk they order at, customer c at kiosk
+ * (c - 1) % clients + 1, with the X-API-Key of the kiosk: the gateway rate limits each kiosk
+ * separately, the way it would in production, and answers the requests beyond its limits with 429.
+ * (Without a key, all the requests would share the bucket of one IP address.) The orders placed are
+ * kept (the most recent 10000) to be cancelled, from the same kiosk, the most recent first so that
+ * they are within the cancellation window; a cancellation due while no order is left is skipped.
+ */
+public class Scenario {
+
+	private static final int MAX_PLACED_ORDERS = 10000;
+
+	private final String gatewayUrl;
+	private final Duration timeout;
+	private final int customers;
+	private final int clients;
+	private final List<Integer> dishIds = new ArrayList<>();
+	private final List<String> categories = new ArrayList<>();
+	private final List<String> words = new ArrayList<>();
+	private final LinkedBlockingDeque<int[]> placedOrders = new LinkedBlockingDeque<>(MAX_PLACED_ORDERS); // orderId, customerId
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public Scenario(String gatewayUrl, List<Map<String, Object>> menu, int customers, int clients, Duration timeout) {
+		this.gatewayUrl = gatewayUrl;
+		this.customers = customers;
+		this.clients = clients;
+		this.timeout = timeout;
+		for (Map<String, Object> dish : menu) {
+			dishIds.add(((Number) dish.get("dishId")).intValue());
+			String category = (String) dish.get("dishCategory");
+			if (!categories.contains(category)) {
+				categories.add(category);
+			}
+			for (String word : ((String) dish.get("dishName")).toLowerCase(Locale.ROOT).split("\\s+")) {
+				if (word.length() > 2 && !words.contains(word)) {
+					words.add(word);
+				}
+			}
+		}
+		if (dishIds.isEmpty()) {
+			throw new IllegalStateException("The menu is empty");
+		}
+	}
+
+	/**
+	 * @return The API keys of the kiosks, to be configured as gateway.ratelimit.api-keys.
+	 */
+	public static List<String> apiKeys(int clients) {
+		return IntStream.rangeClosed(1, clients).mapToObj(Scenario::apiKey).toList();
+	}
+
+	private static String apiKey(int client) {
+		return "loadtest-kiosk-" + client;
+	}
+
+	/**
+	 * @return The request, null for a cancellation without any order to cancel.
+	 */
+	public HttpRequest request(Route route) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int customerId = random.nextInt(customers) + 1;
+		return switch (route) {
+		case MENU_CATEGORY -> get("/client1/dish/category/" + encode(pick(categories)), customerId);
+		case MENU_DISH -> get("/client1/dish/" + pick(dishIds), customerId);
+		case MENU_SEARCH -> {
+			String word = pick(words);
+			// One search in three is sent while the last word is still being typed
+			yield get("/client1/dish/search?q=" + encode(random.nextInt(3) == 0 ? word.substring(0, 3) : word), customerId);
+		}
+		case ORDER_PLACE -> builder("/client2/order", customerId)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"dishId\":" + pick(dishIds) + ",\"customerId\":" + customerId
+						+ ",\"quantity\":" + (random.nextInt(3) + 1) + "}"))
+				.build();
+		case ORDER_CANCEL -> {
+			int[] order = placedOrders.pollLast();
+			yield order == null ? null
+					: builder("/client2/order/" + order[0], order[1]).PUT(HttpRequest.BodyPublishers.noBody()).build();
+		}
+		};
+	}
+
+	/**
+	 * Keeps the orders placed successfully, to be cancelled later.
+	 */
+	public void onResponse(Route route, HttpResponse<String> response) {
+		if (route != Route.ORDER_PLACE || response.statusCode() / 100 != 2) {
+			return;
+		}
+		try {
+			JsonNode order = objectMapper.readTree(response.body());
+			int[] placed = { order.path("orderId").asInt(), order.path("customerId").asInt() };
+			while (!placedOrders.offerLast(placed)) {
+				placedOrders.pollFirst(); // Full: the oldest orders are past the cancellation window anyway
+			}
+		} catch (Exception e) {
+			// Not an order: nothing to cancel
+		}
+	}
+
+	private HttpRequest get(String path, int customerId) {
+		return builder(path, customerId).GET().build();
+	}
+
+	private HttpRequest.Builder builder(String path, int customerId) {
+		return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+				.timeout(timeout)
+				.header("X-API-Key", apiKey((customerId - 1) % clients + 1));
+	}
+
+	private static <T> T pick(List<T> values) {
+		return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+	}
+}
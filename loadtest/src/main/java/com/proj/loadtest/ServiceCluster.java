@@ -0,0 +1,260 @@
+package com.proj.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proj.apigatewayapp.ApigatewayappApplication;
+import com.proj.customerservice.CustomerserviceApplication;
+import com.proj.foodservice.FoodserviceApplication;
+
+/**
+ * ServiceCluster boots the Food Service, the Customer Service and the API Gateway, each in its own
+ * JVM (this jar, run with -service) and on its own port, against in-memory H2 databases.
+ *
+ * Each app runs with its own configuration, as in production:
+ * - The three jars each have an application.properties at the root of the classpath, of which
+ *   Spring would only load the first one: every app gets its own as default properties, read from
+ *   its jar, overridden by loadtest/{app}.properties (H2, no Eureka).
+ * - Logback has one configuration per JVM, hence the separate JVMs. Every app is configured by the
+ *   logback-spring.xml of its own jar (asynchronous appenders, sampled success paths), or the
+ *   default configuration of Spring Boot if it has none (the gateway), with the log levels of its
+ *   application.properties. The logs are written to target/loadtest-logs, the console of each app
+ *   to {app}.out there.
+ *
+ * Eureka is replaced by static instances (spring.cloud.discovery.client.simple), which the gateway
+ * routes (lb://foodservice, lb://customerservice) and the load-balanced RestTemplate of the
+ * Customer Service resolve like the registered ones.
+ *
+ * The menu comes from loadtest/foodservice-data.sql; the customers 1 to N are inserted once the
+ * Customer Service is up. An app is ready once it has written {app}.ready to the work directory,
+ * the Food Service its menu to menu.json before.
+ */
+public class ServiceCluster implements AutoCloseable {
+
+	static final Path LOG_DIRECTORY = Path.of("target", "loadtest-logs");
+	private static final long START_TIMEOUT_MILLIS = 180_000;
+
+	private final List<Process> processes = new ArrayList<>();
+	private final int gatewayPort;
+	private final int foodservicePort = freePort();
+	private final int customerservicePort = freePort();
+	private final Path directory;
+	private final Thread shutdownHook = new Thread(this::close);
+
+	private List<Map<String, Object>> menu;
+
+	/**
+	 * @param gatewayPort - The port of the gateway, any free port if 0.
+	 */
+	public ServiceCluster(int gatewayPort) {
+		this.gatewayPort = gatewayPort == 0 ? freePort() : gatewayPort;
+		try {
+			this.directory = Files.createTempDirectory("loadtest");
+			Files.createDirectories(LOG_DIRECTORY);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		// The apps are stopped with the load test, even if it is interrupted
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Starts the services, then the gateway, once they can be reached.
+	 *
+	 * @param customers - The number of customers to register.
+	 * @param apiKeys - The API keys of the clients, each rate limited separately by the gateway.
+	 */
+	public void start(int customers, List<String> apiKeys) throws IOException, InterruptedException {
+		String[] instances = {
+				"--spring.cloud.discovery.client.simple.instances.foodservice[0].uri=http://localhost:" + foodservicePort,
+				"--spring.cloud.discovery.client.simple.instances.customerservice[0].uri=http://localhost:" + customerservicePort };
+		start("foodservice", foodservicePort, instances);
+		start("customerservice", customerservicePort, instances, "--loadtest.customers=" + customers);
+		start("apigatewayapp", gatewayPort, instances, "--gateway.ratelimit.api-keys=" + String.join(",", apiKeys));
+		menu = new ObjectMapper().readValue(directory.resolve("menu.json").toFile(),
+				new TypeReference<List<Map<String, Object>>>() {
+				});
+	}
+
+	public String gatewayUrl() {
+		return "http://localhost:" + gatewayPort;
+	}
+
+	/**
+	 * @return The dishes of the menu, as dishId, dishCategory and dishName.
+	 */
+	public List<Map<String, Object>> menu() {
+		return menu;
+	}
+
+	@Override
+	public synchronized void close() {
+		for (int i = processes.size() - 1; i >= 0; i--) {
+			Process process = processes.get(i);
+			process.destroy(); // Graceful shutdown of the Spring context
+			try {
+				if (!process.waitFor(30, TimeUnit.SECONDS)) {
+					process.destroyForcibly();
+				}
+			} catch (InterruptedException e) {
+				process.destroyForcibly();
+				Thread.currentThread().interrupt();
+			}
+		}
+		processes.clear();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		} catch (IOException e) {
+			// Left in the temporary directory
+		}
+		if (Thread.currentThread() != shutdownHook) {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		}
+	}
+
+	private void start(String name, int port, String[] instances, String... extraArgs) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>(javaCommand());
+		command.addAll(List.of("-service", name));
+		command.addAll(List.of(instances));
+		command.addAll(List.of(extraArgs));
+		command.add("--server.port=" + port);
+		command.add("--loadtest.directory=" + directory.toAbsolutePath());
+		File out = LOG_DIRECTORY.resolve(name + ".out").toFile();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(out).start();
+		processes.add(process);
+
+		Path ready = directory.resolve(name + ".ready");
+		long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+		while (!Files.exists(ready)) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + out);
+			}
+			if (System.currentTimeMillis() > deadline) {
+				throw new IllegalStateException(name + " did not start within " + START_TIMEOUT_MILLIS / 1000 + "s, see " + out);
+			}
+			Thread.sleep(100);
+		}
+	}
+
+	/**
+	 * @return The command running LoadTestMain in a new JVM, from this jar or this classpath.
+	 */
+	private static List<String> javaCommand() {
+		String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+		String classPath = System.getProperty("java.class.path");
+		if (classPath.endsWith(".jar") && !classPath.contains(File.pathSeparator)) {
+			return List.of(java, "-jar", classPath);
+		}
+		return List.of(java, "-cp", classPath, LoadTestMain.class.getName());
+	}
+
+	/**
+	 * Runs one app in this JVM, until the JVM is stopped: the main of the processes started by
+	 * ServiceCluster.
+	 *
+	 * @param name - The app: foodservice, customerservice or apigatewayapp.
+	 * @param args - The arguments of the app.
+	 */
+	static void runService(String name, String[] args) throws IOException {
+		Class<?> application = switch (name) {
+		case "foodservice" -> FoodserviceApplication.class;
+		case "customerservice" -> CustomerserviceApplication.class;
+		case "apigatewayapp" -> ApigatewayappApplication.class;
+		default -> throw new IllegalArgumentException("Unknown service " + name);
+		};
+		List<String> appArgs = new ArrayList<>(Arrays.asList(args));
+		appArgs.add("--spring.config.location=classpath:loadtest/" + name + ".properties");
+		// Every jar has a logback-spring.xml on the classpath: the one of the app is named explicitly
+		URL logbackConfig = ownResource(application, "logback-spring.xml");
+		appArgs.add("--logging.config=" + (logbackConfig != null ? logbackConfig
+				: "classpath:loadtest/logback-default.xml"));
+		appArgs.add("--logging.file.name=" + LOG_DIRECTORY.resolve(name + ".log"));
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+				.main(application)
+				.properties(ownProperties(application))
+				.run(appArgs.toArray(new String[0]));
+
+		Path directory = Path.of(context.getEnvironment().getRequiredProperty("loadtest.directory"));
+		if (application == FoodserviceApplication.class) {
+			List<Map<String, Object>> dishes = new JdbcTemplate(context.getBean(DataSource.class))
+					.query("SELECT dishId, dishCategory, dishName FROM Menu ORDER BY dishId", (rs, row) -> Map.of(
+							"dishId", rs.getInt(1), "dishCategory", rs.getString(2), "dishName", rs.getString(3)));
+			new ObjectMapper().writeValue(directory.resolve("menu.json").toFile(), dishes);
+		} else if (application == CustomerserviceApplication.class) {
+			registerCustomers(context.getBean(DataSource.class),
+					context.getEnvironment().getRequiredProperty("loadtest.customers", Integer.class));
+		}
+		Files.createFile(directory.resolve(name + ".ready"));
+	}
+
+	/**
+	 * Reads the application.properties of the jar (or classes directory) of an application.
+	 */
+	static Map<String, Object> ownProperties(Class<?> application) {
+		URL propertiesUrl = ownResource(application, "application.properties");
+		Properties properties = new Properties();
+		try (InputStream in = propertiesUrl.openStream()) {
+			properties.load(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Can't read " + propertiesUrl, e);
+		}
+		Map<String, Object> map = new HashMap<>();
+		properties.forEach((key, value) -> map.put((String) key, value));
+		return map;
+	}
+
+	/**
+	 * @return A resource at the root of the jar (or classes directory) of an application, null if it has none.
+	 */
+	static URL ownResource(Class<?> application, String resource) {
+		String classFile = application.getName().replace('.', '/') + ".class";
+		String classUrl = application.getClassLoader().getResource(classFile).toString();
+		try {
+			URL url = URI.create(classUrl.substring(0, classUrl.length() - classFile.length()) + resource).toURL();
+			try (InputStream in = url.openStream()) {
+				return url;
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void registerCustomers(DataSource dataSource, int customers) {
+		// Identity column: the customers get the IDs 1 to customers
+		new JdbcTemplate(dataSource).update("INSERT INTO Customer (firstName, lastName, email, phoneNumber, address, city, state, zipCode, passcode)"
+				+ " SELECT CONCAT('Customer', X), 'Load', CONCAT('customer', X, '@example.com'), CAST(9000000000 + X AS VARCHAR),"
+				+ " 'MG Road', 'Bengaluru', 'Karnataka', '560001', 'secret' FROM SYSTEM_RANGE(1, ?)", customers);
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
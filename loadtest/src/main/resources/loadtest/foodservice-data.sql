@@ -0,0 +1,37 @@
+-- Menu the load test browses and orders from: six categories, prices from 40 to 450
+INSERT INTO Menu (dishCategory, dishName, unitPrice, dishDesc) VALUES
+('Starter', 'Paneer Tikka', 220, 'Cottage cheese cubes marinated in yoghurt and spices, grilled in the tandoor'),
+('Starter', 'Chicken Tikka', 260, 'Boneless chicken marinated in yoghurt and spices, grilled in the tandoor'),
+('Starter', 'Veg Spring Roll', 160, 'Crispy rolls stuffed with cabbage, carrot and noodles'),
+('Starter', 'Hara Bhara Kebab', 180, 'Spinach, peas and potato patties, shallow fried'),
+('Starter', 'Chilli Paneer', 210, 'Fried cottage cheese tossed with capsicum, onion and chilli sauce'),
+('Starter', 'Fish Amritsari', 290, 'Batter fried fish fillets with carom seeds'),
+('Main', 'Paneer Butter Masala', 280, 'Cottage cheese in a creamy tomato and butter gravy'),
+('Main', 'Butter Chicken', 320, 'Tandoori chicken in a creamy tomato and butter gravy'),
+('Main', 'Dal Makhani', 240, 'Black lentils slow cooked with butter and cream'),
+('Main', 'Chicken Biryani', 300, 'Basmati rice layered with spiced chicken, cooked on dum'),
+('Main', 'Veg Biryani', 250, 'Basmati rice layered with spiced vegetables, cooked on dum'),
+('Main', 'Mutton Rogan Josh', 420, 'Kashmiri style mutton curry with red chillies'),
+('Main', 'Palak Paneer', 260, 'Cottage cheese in a spinach gravy'),
+('Main', 'Chole Masala', 200, 'Chickpeas in a tangy onion and tomato gravy'),
+('Main', 'Prawn Curry', 450, 'Prawns in a coconut and kokum gravy'),
+('Bread', 'Butter Naan', 60, 'Leavened bread baked in the tandoor, brushed with butter'),
+('Bread', 'Garlic Naan', 70, 'Leavened bread topped with garlic and coriander'),
+('Bread', 'Tandoori Roti', 40, 'Whole wheat bread baked in the tandoor'),
+('Bread', 'Lachha Paratha', 65, 'Layered whole wheat bread'),
+('Bread', 'Cheese Naan', 90, 'Leavened bread stuffed with cheese'),
+('Rice', 'Jeera Rice', 150, 'Basmati rice tempered with cumin'),
+('Rice', 'Steamed Rice', 120, 'Plain basmati rice'),
+('Rice', 'Veg Pulao', 180, 'Basmati rice cooked with vegetables and whole spices'),
+('Rice', 'Curd Rice', 140, 'Rice with yoghurt, tempered with mustard seeds and curry leaves'),
+('Dessert', 'Gulab Jamun', 90, 'Milk dumplings in sugar syrup'),
+('Dessert', 'Rasmalai', 120, 'Cottage cheese dumplings in saffron milk'),
+('Dessert', 'Gajar Halwa', 110, 'Carrot pudding with milk and nuts'),
+('Dessert', 'Kulfi', 100, 'Frozen milk dessert with pistachio'),
+('Dessert', 'Chocolate Brownie', 150, 'Warm brownie with chocolate sauce'),
+('Beverage', 'Masala Chai', 50, 'Tea brewed with milk and spices'),
+('Beverage', 'Mango Lassi', 110, 'Yoghurt drink blended with mango'),
+('Beverage', 'Sweet Lassi', 90, 'Sweetened yoghurt drink'),
+('Beverage', 'Fresh Lime Soda', 80, 'Lime juice with soda, sweet or salted'),
+('Beverage', 'Cold Coffee', 130, 'Coffee blended with milk and ice cream'),
+('Beverage', 'Buttermilk', 60, 'Spiced yoghurt drink with mint');